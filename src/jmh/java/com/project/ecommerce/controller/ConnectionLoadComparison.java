@@ -0,0 +1,298 @@
+package com.project.ecommerce.controller;
+
+import com.project.ecommerce.EcommerceApplication;
+import com.project.ecommerce.config.ReactiveCatalogServer;
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.security.JwtUtil;
+import com.project.ecommerce.service.ProductService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Comparação de carga entre os GETs de /api/products na API servlet (Tomcat,
+ * JPA) e na API reativa (Netty, R2DBC) com muitas conexões simultâneas
+ * (padrão: 10.000). Sobe a aplicação completa com as duas APIs sobre um H2
+ * em memória, cadastra os produtos e, para cada API, mantém N clientes em
+ * circuito fechado, cada um com a sua conexão HTTP/1.1 keep-alive: ao receber
+ * a resposta, o cliente envia a próxima requisição (por ID, categoria, busca
+ * ou página, sorteadas). As conexões são abertas ao longo de --ramp segundos.
+ *
+ * Relata vazão, percentis de latência (HdrHistogram, em ms) por rota e no
+ * total, e erros: status diferente de 200, conexão recusada e timeout. Os
+ * servidores ficam com a configuração padrão (Tomcat: 200 threads e
+ * max-connections 8192; Netty: um event loop por CPU).
+ *
+ * Execução:
+ * mvn -P benchmark test-compile exec:exec
+ *     -Dbenchmark.main=com.project.ecommerce.controller.ConnectionLoadComparison
+ *     "-Dbenchmark.args=--connections=10000 --seconds=30"
+ *
+ * Cliente e servidor rodam no mesmo processo: com 10.000 conexões são cerca
+ * de 20.000 descritores de arquivo, então ulimit -n precisa ser maior que isso.
+ */
+public class ConnectionLoadComparison {
+
+    static final String[] CATEGORIES = {"Calçados", "Roupas", "Eletrônicos", "Livros", "Casa"};
+    static final String[] ROUTES = {"id", "category", "search", "paginated"};
+
+    // Latências acima disso são registradas como o máximo
+    static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int connections = Integer.parseInt(options.getOrDefault("connections", "10000"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int ramp = Integer.parseInt(options.getOrDefault("ramp", "5"));
+        int products = Integer.parseInt(options.getOrDefault("products", "2000"));
+        String[] targets = options.getOrDefault("targets", "servlet,reactive").split(",");
+
+        // Conexões ociosas do cliente fecham logo, liberando descritores para a API seguinte
+        System.setProperty("jdk.httpclient.keepalive.timeout", "2");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EcommerceApplication.class).run(
+                "--server.port=0",
+                "--catalog.reactive.enabled=true",
+                "--catalog.reactive.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.project.ecommerce.security=WARN",
+                "--tracing.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.url=jdbc:h2:mem:load-comparison;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///load-comparison",
+                // Mesmo número de conexões com o banco nos dois lados
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.r2dbc.pool.max-size=20");
+
+        try {
+            ProductService productService = context.getBean(ProductService.class);
+            for (int i = 0; i < products; i++) {
+                ProductDTO product = new ProductDTO("Produto " + i, BigDecimal.valueOf(10 + i % 490),
+                        "https://example.com/" + i + ".jpg", CATEGORIES[i % CATEGORIES.length], "Descrição " + i);
+                product.setStockQuantity(i % 7);
+                productService.createProduct(product);
+            }
+
+            String authorization = "Bearer " + context.getBean(JwtUtil.class).generateToken("admin@ecommerce.com", "ADMIN");
+            Map<String, Integer> ports = Map.of(
+                    "servlet", ((WebServerApplicationContext) context).getWebServer().getPort(),
+                    "reactive", context.getBean(ReactiveCatalogServer.class).getPort());
+
+            System.out.printf("%d conexões, %d produtos, aquecimento %ds, medição %ds, Java %s, %d CPU(s)%n",
+                    connections, products, warmup, seconds, Runtime.version(), Runtime.getRuntime().availableProcessors());
+            for (String target : targets) {
+                LoadRun run = new LoadRun("http://localhost:" + ports.get(target) + "/api/products",
+                        authorization, connections, products);
+                run.execute(ramp, warmup, seconds);
+                run.report(target);
+                // Tempo para as conexões ociosas fecharem antes da próxima API
+                Thread.sleep(5000);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (use --nome=valor): " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    /**
+     * Uma rodada contra uma API: N clientes em circuito fechado sobre um único
+     * HttpClient (uma conexão por requisição em andamento)
+     */
+    static final class LoadRun {
+
+        private final String baseUrl;
+        private final String authorization;
+        private final int connections;
+        private final int products;
+        private final ExecutorService executor = Executors.newFixedThreadPool(4);
+        private final HttpClient client;
+
+        private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+        private final LongAdder badStatus = new LongAdder();
+        private final LongAdder refused = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder otherErrors = new LongAdder();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Map<String, Histogram> results = new LinkedHashMap<>();
+
+        private volatile boolean running = true;
+        private long measuredNanos;
+
+        LoadRun(String baseUrl, String authorization, int connections, int products) {
+            this.baseUrl = baseUrl;
+            this.authorization = authorization;
+            this.connections = connections;
+            this.products = products;
+            this.client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .executor(executor)
+                    .build();
+            for (String route : ROUTES) {
+                recorders.put(route, new Recorder(MAX_LATENCY_MICROS, 3));
+            }
+        }
+
+        void execute(int rampSeconds, int warmupSeconds, int measureSeconds) throws InterruptedException {
+            long rampPauseNanos = TimeUnit.SECONDS.toNanos(rampSeconds) / connections;
+            for (int i = 0; i < connections; i++) {
+                inFlight.incrementAndGet();
+                sendNext();
+                if (rampPauseNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(rampPauseNanos);
+                }
+            }
+
+            Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+            resetCounters();
+            long start = System.nanoTime();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(measureSeconds));
+            measuredNanos = System.nanoTime() - start;
+            for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().getIntervalHistogram());
+            }
+
+            // Encerrar: cada cliente para ao receber a resposta em andamento
+            running = false;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            executor.shutdown();
+        }
+
+        private void resetCounters() {
+            for (Recorder recorder : recorders.values()) {
+                recorder.reset();
+            }
+            badStatus.reset();
+            refused.reset();
+            timeouts.reset();
+            otherErrors.reset();
+        }
+
+        private void sendNext() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String route = ROUTES[random.nextInt(ROUTES.length)];
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path(route, random)))
+                    .header("Authorization", authorization)
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                        if (error != null) {
+                            countError(error);
+                        } else if (response.statusCode() != 200) {
+                            badStatus.increment();
+                        } else {
+                            recorders.get(route).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                        }
+
+                        if (running && error != null) {
+                            // Pausa antes de tentar de novo, como faria um cliente real
+                            CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS, executor)
+                                    .execute(this::sendNext);
+                        } else if (running) {
+                            sendNext();
+                        } else {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+        }
+
+        private String path(String route, ThreadLocalRandom random) {
+            String category = URLEncoder.encode(CATEGORIES[random.nextInt(CATEGORIES.length)], StandardCharsets.UTF_8);
+            switch (route) {
+                case "id":
+                    return "/" + (1 + random.nextInt(products));
+                case "category":
+                    return "/category/" + category;
+                case "search":
+                    return "/search?category=" + category + "&inStock=true&minPrice=" + random.nextInt(100)
+                            + "&page=" + random.nextInt(5) + "&size=20";
+                default:
+                    return "/paginated?page=" + random.nextInt(20) + "&size=20&sortBy=price";
+            }
+        }
+
+        private void countError(Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof HttpTimeoutException) {
+                timeouts.increment();
+            } else if (cause instanceof ConnectException) {
+                refused.increment();
+            } else {
+                otherErrors.increment();
+            }
+        }
+
+        void report(String target) {
+            Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+            double seconds = measuredNanos / 1e9;
+
+            System.out.printf("%n== %s ==%n", target);
+            System.out.printf("%-10s %10s %10s %9s %9s %9s %9s %9s%n",
+                    "rota", "respostas", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms");
+            for (Map.Entry<String, Histogram> entry : results.entrySet()) {
+                printLine(entry.getKey(), entry.getValue(), seconds);
+                total.add(entry.getValue());
+            }
+            printLine("total", total, seconds);
+            System.out.printf("erros: status=%d recusadas=%d timeout=%d outros=%d%n",
+                    badStatus.sum(), refused.sum(), timeouts.sum(), otherErrors.sum());
+        }
+
+        private static void printLine(String name, Histogram histogram, double seconds) {
+            System.out.printf("%-10s %10d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    name,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+    }
+}
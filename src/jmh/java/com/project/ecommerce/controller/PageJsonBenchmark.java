@@ -0,0 +1,64 @@
+package com.project.ecommerce.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.ecommerce.dto.ProductDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de um Page<ProductDTO> (conteúdo e metadados de
+ * paginação) com um ObjectMapper montado como o do Spring Boot, por tamanho
+ * de página.
+ *
+ * Execução: mvn -P benchmark test-compile exec:exec -Djmh.includes=PageJsonBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageJsonBenchmark {
+
+    static final String[] CATEGORIES = {"Calçados", "Roupas", "Eletrônicos", "Livros", "Casa"};
+
+    @Param({"10", "50", "200"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<ProductDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<ProductDTO> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            ProductDTO product = new ProductDTO("Produto " + i, BigDecimal.valueOf(1990 + i, 2),
+                    "https://example.com/" + i + ".jpg", CATEGORIES[i % CATEGORIES.length],
+                    "Descrição do produto " + i + " com detalhes de material, tamanho e cuidados");
+            product.setId((long) i + 1);
+            product.setOriginalPrice(BigDecimal.valueOf(2990 + i, 2));
+            product.setRating(i % 5 + 0.5);
+            product.setStockQuantity(i % 7);
+            product.setVersion(1L);
+            content.add(product);
+        }
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize, Sort.by("name")), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
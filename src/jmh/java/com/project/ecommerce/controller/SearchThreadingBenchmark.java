@@ -0,0 +1,128 @@
+package com.project.ecommerce.controller;
+
+import com.project.ecommerce.EcommerceApplication;
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.security.JwtUtil;
+import com.project.ecommerce.service.ProductService;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URLEncoder;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão e latência (p99 no modo SampleTime) de GET /api/products/search com
+ * 256 clientes simultâneos, contra a aplicação completa sobre um H2 acessado
+ * por TCP (cada busca faz idas ao banco):
+ * - platform: Tomcat com o pool padrão de 200 threads de plataforma;
+ * - virtual: spring.threads.virtual.enabled=true, uma thread virtual por requisição.
+ *
+ * O modo virtual exige Java 21+; em versões anteriores o setup falha, para
+ * que o resultado não seja confundido com o modo platform.
+ *
+ * Execução (com java 21 no PATH):
+ * mvn -P benchmark test-compile exec:exec -Djmh.includes=SearchThreadingBenchmark
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class SearchThreadingBenchmark {
+
+    static final int PRODUCTS = 2000;
+    static final String[] CATEGORIES = {"Calçados", "Roupas", "Eletrônicos", "Livros", "Casa"};
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    private Server database;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+    private String[] encodedCategories;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        boolean virtual = mode.equals("virtual");
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("O modo virtual exige Java 21+ (em execução: " + Runtime.version() + ")");
+        }
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        database = Server.createTcpServer("-tcpPort", Integer.toString(port), "-ifNotExists").start();
+
+        context = new SpringApplicationBuilder(EcommerceApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.project.ecommerce.security=WARN",
+                "--tracing.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.url=jdbc:h2:tcp://localhost:" + port + "/mem:search-" + mode + ";DB_CLOSE_DELAY=-1");
+
+        ProductService productService = context.getBean(ProductService.class);
+        for (int i = 0; i < PRODUCTS; i++) {
+            ProductDTO product = new ProductDTO("Produto " + i, BigDecimal.valueOf(10 + i % 490),
+                    "https://example.com/" + i + ".jpg", CATEGORIES[i % CATEGORIES.length], "Descrição " + i);
+            product.setStockQuantity(i % 7);
+            productService.createProduct(product);
+        }
+
+        int serverPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + serverPort + "/api/products/search";
+        authorization = "Bearer " + context.getBean(JwtUtil.class).generateToken("admin@ecommerce.com", "ADMIN");
+        encodedCategories = new String[CATEGORIES.length];
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            encodedCategories[i] = URLEncoder.encode(CATEGORIES[i], StandardCharsets.UTF_8);
+        }
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        database.stop();
+    }
+
+    @Benchmark
+    public int search() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String query = "?category=" + encodedCategories[random.nextInt(encodedCategories.length)]
+                + "&inStock=true&minPrice=" + random.nextInt(100)
+                + "&page=" + random.nextInt(5) + "&size=20";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + query))
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Resposta inesperada: " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
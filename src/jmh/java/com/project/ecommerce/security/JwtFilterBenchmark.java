@@ -0,0 +1,76 @@
+package com.project.ecommerce.security;
+
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter.doFilterInternal com requisição e resposta mock,
+ * sem o restante da cadeia do Spring Security:
+ * - valid: token emitido por JwtUtil (claims em cache), autentica o usuário;
+ * - invalid: assinatura que não confere, passa pelo parser do jjwt e é rejeitado;
+ * - absent: sem header Authorization.
+ * O SecurityContext é limpo a cada operação, como ao fim de cada requisição.
+ *
+ * Execução: mvn -P benchmark test-compile exec:exec -Djmh.includes=JwtFilterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"valid", "invalid", "absent"})
+    public String token;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = JwtTokenBenchmark.newJwtUtil();
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+
+        String issued = jwtUtil.generateToken("admin@ecommerce.com", "ADMIN");
+        switch (token) {
+            case "valid":
+                authorization = "Bearer " + issued;
+                break;
+            case "invalid":
+                // Penúltimo caractere da assinatura trocado: o último tem 2 bits de
+                // preenchimento, e trocar A por B nele muda só esses bits
+                int tampered = issued.length() - 2;
+                char replacement = issued.charAt(tampered) == 'A' ? 'B' : 'A';
+                authorization = "Bearer " + issued.substring(0, tampered) + replacement + issued.charAt(tampered + 1);
+                break;
+            default:
+                authorization = null;
+        }
+    }
+
+    @Benchmark
+    public Object doFilterInternal() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/search");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            filter.doFilterInternal(request, response, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
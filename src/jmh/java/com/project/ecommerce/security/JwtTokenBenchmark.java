@@ -0,0 +1,62 @@
+package com.project.ecommerce.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil como chamado pela aplicação: generateToken no login e
+ * validateToken em toda requisição autenticada. O mesmo token é revalidado,
+ * como um cliente que o reutiliza entre requisições, então validateToken mede
+ * o caminho servido pelo cache de claims; o custo da primeira validação
+ * (assinatura) está em JwtVerificationBenchmark.fastVerifier.
+ *
+ * Execução: mvn -P benchmark test-compile exec:exec -Djmh.includes=JwtTokenBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        token = jwtUtil.generateToken("admin@ecommerce.com", "ADMIN");
+    }
+
+    // JwtUtil montado como no contexto Spring, com o cache de claims padrão
+    static JwtUtil newJwtUtil() {
+        JwtClaimsCache claimsCache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(claimsCache, "maxSize", 10_000L);
+        claimsCache.init();
+
+        JwtKeyRing keyRing = JwtVerificationBenchmark.newKeyRing(claimsCache);
+
+        JwtFastVerifier fastVerifier = new JwtFastVerifier();
+        ReflectionTestUtils.setField(fastVerifier, "keyRing", keyRing);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 86400);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCache", claimsCache);
+        ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "fastVerifier", fastVerifier);
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("admin@ecommerce.com", "ADMIN");
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+}
@@ -0,0 +1,104 @@
+package com.project.ecommerce.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a verificação de um token emitido por JwtUtil.generateToken:
+ * - legacySequence: validateToken + getEmailFromToken + getRoleFromToken como eram
+ *   antes do cache (4 parses jjwt, cada um derivando a chave e montando o parser);
+ * - jjwtParse: um único parse com o parser compartilhado do JwtKeyRing;
+ * - fastVerifier: o JwtFastVerifier.
+ *
+ * Execução: mvn -P benchmark test-compile exec:exec -Djmh.includes=JwtVerificationBenchmark
+ * (acrescente "-prof gc" em jmh.includes para ver a alocação por operação).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    static final String SECRET = "mySecretKeyForJWTTokenGenerationThatNeedsToBeAtLeast256BitsLongForHS512Algorithm";
+
+    private JwtKeyRing keyRing;
+    private JwtFastVerifier fastVerifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtClaimsCache claimsCache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(claimsCache, "maxSize", 10_000L);
+        claimsCache.init();
+
+        keyRing = newKeyRing(claimsCache);
+
+        fastVerifier = new JwtFastVerifier();
+        ReflectionTestUtils.setField(fastVerifier, "keyRing", keyRing);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 86400);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCache", claimsCache);
+        ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "fastVerifier", fastVerifier);
+
+        token = jwtUtil.generateToken("admin@ecommerce.com", "ADMIN");
+    }
+
+    static JwtKeyRing newKeyRing(JwtClaimsCache claimsCache) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "secret", SECRET);
+        ReflectionTestUtils.setField(keyRing, "previousSecrets", List.of());
+        ReflectionTestUtils.setField(keyRing, "jwtExpiration", 86400);
+        ReflectionTestUtils.setField(keyRing, "claimsCache", claimsCache);
+        keyRing.init();
+        return keyRing;
+    }
+
+    @Benchmark
+    public void legacySequence(Blackhole blackhole) {
+        // validateToken: parse + isTokenExpired (novo parse)
+        blackhole.consume(legacyParse(token));
+        blackhole.consume(legacyParse(token).getExpiration().before(new Date()));
+        // getEmailFromToken + getRoleFromToken
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(legacyParse(token).get("role", String.class));
+    }
+
+    @Benchmark
+    public void jjwtParse(Blackhole blackhole) {
+        Claims claims = keyRing.getParser().parseClaimsJws(token).getBody();
+        blackhole.consume(claims.getSubject());
+        blackhole.consume(claims.get("role", String.class));
+        blackhole.consume(claims.getExpiration());
+    }
+
+    @Benchmark
+    public void fastVerifier(Blackhole blackhole) {
+        VerifiedClaims claims = fastVerifier.verify(token);
+        blackhole.consume(claims.getSubject());
+        blackhole.consume(claims.getRole());
+        blackhole.consume(claims.getExpirationMillis());
+    }
+
+    private static Claims legacyParse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
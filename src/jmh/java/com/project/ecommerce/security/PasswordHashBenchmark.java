@@ -0,0 +1,38 @@
+package com.project.ecommerce.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCryptPasswordEncoder.matches (a checagem de senha do login) por fator de
+ * custo. Cada ponto a mais dobra o tempo; a aplicação usa o padrão (10).
+ *
+ * Execução: mvn -P benchmark test-compile exec:exec -Djmh.includes=PasswordHashBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        encodedPassword = encoder.encode("admin123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("admin123", encodedPassword);
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.EcommerceApplication;
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.entity.User;
+import com.project.ecommerce.repository.UserRepository;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vazão de inserts (linhas/s) com a aplicação completa sobre um H2 em memória
+ * acessado por TCP, para que cada ida ao banco tenha o custo de rede:
+ * - legacy: allocation-size=1 e hibernate.jdbc.batch_size=0, uma ida ao banco
+ *   por insert, como acontecia com GenerationType.IDENTITY;
+ * - pooled: blocos de 50 ids (pooled-lo) e lotes JDBC de 50.
+ *
+ * createProductLoop chama ProductService.createProduct em sequência dentro de
+ * uma transação; saveAllUsers grava um lote com UserRepository.saveAll.
+ *
+ * Execução: mvn -P benchmark test-compile exec:exec -Djmh.includes=InsertBatchingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBatchingBenchmark {
+
+    static final int ROWS = 200;
+
+    // Senha já codificada: o custo do BCrypt não entra na medida
+    static final String ENCODED_PASSWORD = "$2a$10$7EqJtq98hPqEX7fNZaFWoOa6P8QeZ8JvG5Q1Y9Qp3bJ0m1cQe1s2e";
+
+    @Param({"legacy", "pooled"})
+    public String mode;
+
+    private Server database;
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        database = Server.createTcpServer("-tcpPort", Integer.toString(port), "-ifNotExists").start();
+
+        boolean pooled = mode.equals("pooled");
+        // Argumentos de linha de comando: têm precedência sobre o application.properties
+        context = new SpringApplicationBuilder(EcommerceApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--tracing.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.url=jdbc:h2:tcp://localhost:" + port + "/mem:insert-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.ecommerce.id.allocation-size=" + (pooled ? 50 : 1),
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + (pooled ? 50 : 0));
+
+        productService = context.getBean(ProductService.class);
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        database.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void createProductLoop() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                long n = sequence.incrementAndGet();
+                ProductDTO product = new ProductDTO("Produto " + n, BigDecimal.valueOf(10 + n % 500),
+                        "https://example.com/" + n + ".jpg", "Categoria " + n % 8, "Descrição " + n);
+                product.setStockQuantity(10);
+                productService.createProduct(product);
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveAllUsers() {
+        List<User> users = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            long n = sequence.incrementAndGet();
+            users.add(new User("Cliente " + n, "cliente" + n + "@bench.com", ENCODED_PASSWORD, User.Role.CUSTOMER));
+        }
+        userRepository.saveAll(users);
+    }
+}
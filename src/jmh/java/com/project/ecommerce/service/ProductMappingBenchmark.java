@@ -0,0 +1,56 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo das conversões entidade/DTO do ProductService (convertToDTO em toda
+ * leitura de produto completo, convertToEntity em criação e atualização).
+ * Sem Spring: as conversões não usam os beans injetados.
+ *
+ * Execução: mvn -P benchmark test-compile exec:exec -Djmh.includes=ProductMappingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    private ProductService productService;
+    private Product product;
+    private ProductDTO dto;
+
+    @Setup
+    public void setUp() {
+        productService = new ProductService();
+
+        product = new Product("Tênis de corrida", new BigDecimal("399.90"),
+                "https://example.com/tenis.jpg", "Calçados", "Tênis leve com amortecimento para treinos longos");
+        product.setId(42L);
+        product.setOriginalPrice(new BigDecimal("499.90"));
+        product.setRating(4.5);
+        product.setStockQuantity(17);
+        product.setCreatedAt(LocalDateTime.now());
+        product.setUpdatedAt(LocalDateTime.now());
+        product.setVersion(3L);
+
+        dto = productService.convertToDTO(product);
+    }
+
+    @Benchmark
+    public ProductDTO convertToDTO() {
+        return productService.convertToDTO(product);
+    }
+
+    @Benchmark
+    public Product convertToEntity() {
+        return productService.convertToEntity(dto);
+    }
+}
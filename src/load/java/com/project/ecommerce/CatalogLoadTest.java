@@ -0,0 +1,379 @@
+package com.project.ecommerce;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.ecommerce.dto.ImportReportDTO;
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.entity.Product;
+import com.project.ecommerce.repository.ProductRepository;
+import com.project.ecommerce.service.ProductImportService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga da aplicação completa (Tomcat em porta aleatória, H2 em
+ * memória com um catálogo semeado). Um agendador dispara requisições em
+ * malha aberta na taxa configurada, com o mix de tráfego de Endpoint; cada
+ * requisição roda em uma virtual thread (em Java 17, num pool de threads),
+ * com no máximo "load.clients" em andamento. A latência é medida a partir
+ * do instante agendado, então a espera por um cliente livre também conta, e
+ * o teste falha se o p99 de algum endpoint passar do orçamento ou se houver
+ * respostas de erro.
+ *
+ * Execução: mvn -P load-test test [-Dload.rate=...] [-Dload.p99-ms.<endpoint>=...]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.com.project.ecommerce.security=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "jwt.debug=false",
+        "tracing.enabled=false"
+})
+class CatalogLoadTest {
+
+    // Endpoints exercitados, com o peso no mix e o orçamento padrão de p99
+    enum Endpoint {
+        LOGIN("login", 2, 1500),
+        PRODUCT_BY_ID("by-id", 43, 250),
+        SEARCH("search", 25, 400),
+        PAGINATED("paginated", 20, 400),
+        ADMIN_UPDATE("admin-update", 10, 400);
+
+        final String key;
+        final int weight;
+        final long defaultP99Millis;
+
+        Endpoint(String key, int weight, long defaultP99Millis) {
+            this.key = key;
+            this.weight = weight;
+            this.defaultP99Millis = defaultP99Millis;
+        }
+    }
+
+    private static final String[] CATEGORIES = {"Calçados", "Roupas", "Eletrônicos", "Livros", "Casa", "Esportes", "Beleza", "Brinquedos"};
+    private static final String[][] NOUNS = {
+            {"Tênis", "Sandália", "Bota", "Sapatilha", "Chinelo"},
+            {"Camiseta", "Jaqueta", "Calça", "Vestido", "Moletom"},
+            {"Fone", "Smartphone", "Notebook", "Monitor", "Teclado"},
+            {"Romance", "Guia", "Manual", "Coletânea", "Biografia"},
+            {"Luminária", "Panela", "Almofada", "Tapete", "Cafeteira"},
+            {"Bicicleta", "Bola", "Raquete", "Mochila", "Garrafa"},
+            {"Perfume", "Shampoo", "Hidratante", "Batom", "Protetor"},
+            {"Quebra-cabeça", "Boneca", "Carrinho", "Jogo", "Pelúcia"}
+    };
+    private static final String[] ADJECTIVES = {"Premium", "Clássico", "Compacto", "Esportivo", "Slim", "Pro", "Eco", "Infantil", "Vintage", "Ultra"};
+    private static final String[] SORT_FIELDS = {"name", "price", "rating", "createdAt"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${load.rate:60}")
+    private int rate;
+
+    @Value("${load.duration-seconds:30}")
+    private int durationSeconds;
+
+    @Value("${load.warmup-seconds:10}")
+    private int warmupSeconds;
+
+    @Value("${load.clients:64}")
+    private int clients;
+
+    @Value("${load.products:5000}")
+    private int productCount;
+
+    private HttpClient httpClient;
+    private ExecutorService clientExecutor;
+    private Semaphore clientSlots;
+    private long[] productIds;
+    private String customerToken;
+    private String adminToken;
+
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        clientExecutor = newClientExecutor(clients);
+        clientSlots = new Semaphore(clients);
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(TimeUnit.MINUTES.toNanos(1), 3));
+            errors.put(endpoint, new AtomicLong());
+        }
+
+        ImportReportDTO report = productImportService.importProducts(
+                new StringReader(catalogNdjson(productCount)), ProductImportService.Format.NDJSON);
+        assertEquals(productCount, report.getImported(), "catálogo semeado parcialmente");
+        productIds = productRepository.findAll().stream().mapToLong(Product::getId).toArray();
+
+        customerToken = login("customer@test.com", "customer123");
+        adminToken = login("admin@ecommerce.com", "admin123");
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientExecutor.shutdownNow();
+    }
+
+    @Test
+    void mixedTrafficMeetsLatencyBudgets() throws Exception {
+        int[] mix = cumulativeWeights();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        // Malha aberta: o agendador não espera as respostas
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            Endpoint endpoint = pick(mix);
+            long scheduledAt = intended;
+            boolean measured = intended >= measureFrom;
+            clientExecutor.execute(() -> call(endpoint, scheduledAt, measured));
+        }
+        clientExecutor.shutdown();
+        assertTrue(clientExecutor.awaitTermination(2, TimeUnit.MINUTES), "clientes não terminaram");
+
+        Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+        recorders.forEach((endpoint, recorder) -> histograms.put(endpoint, recorder.getIntervalHistogram()));
+        printReport(histograms);
+
+        List<Executable> checks = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = histograms.get(endpoint);
+            long p99Millis = TimeUnit.NANOSECONDS.toMillis(histogram.getValueAtPercentile(99));
+            long budget = budgetMillis(endpoint);
+            checks.add(() -> assertTrue(histogram.getTotalCount() > 0, endpoint.key + ": nenhuma requisição medida"));
+            checks.add(() -> assertEquals(0, errors.get(endpoint).get(), endpoint.key + ": respostas de erro"));
+            checks.add(() -> assertTrue(p99Millis <= budget,
+                    endpoint.key + ": p99 de " + p99Millis + " ms acima do orçamento de " + budget + " ms"));
+        }
+        assertAll("SLO de latência", checks);
+    }
+
+    // Executar uma requisição e registrar a latência desde o instante agendado
+    private void call(Endpoint endpoint, long scheduledAt, boolean measured) {
+        boolean ok;
+        try {
+            clientSlots.acquire();
+            try {
+                HttpResponse<Void> response = httpClient.send(request(endpoint), HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() / 100 == 2;
+            } finally {
+                clientSlots.release();
+            }
+        } catch (Exception e) {
+            ok = false;
+        }
+        if (measured) {
+            recorders.get(endpoint).recordValue(System.nanoTime() - scheduledAt);
+            if (!ok) {
+                errors.get(endpoint).incrementAndGet();
+            }
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (endpoint) {
+            case LOGIN:
+                return json("/api/auth/login", null)
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"email\":\"customer@test.com\",\"password\":\"customer123\"}"))
+                        .build();
+            case PRODUCT_BY_ID:
+                return get("/api/products/" + randomProductId(), customerToken);
+            case SEARCH:
+                return get("/api/products/search?" + randomSearchQuery(random), customerToken);
+            case PAGINATED:
+                return get("/api/products/paginated?page=" + random.nextInt(50) + "&size=20&sortBy="
+                        + SORT_FIELDS[random.nextInt(SORT_FIELDS.length)] + "&sortDir=" + (random.nextBoolean() ? "asc" : "desc"),
+                        customerToken);
+            default:
+                return json("/api/admin/products/" + randomProductId() + "/stock", adminToken)
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"quantity\":" + random.nextInt(200) + "}"))
+                        .build();
+        }
+    }
+
+    private String randomSearchQuery(ThreadLocalRandom random) {
+        int category = random.nextInt(CATEGORIES.length);
+        switch (random.nextInt(4)) {
+            case 0:
+                return "category=" + encode(CATEGORIES[category]) + "&size=20";
+            case 1:
+                return "name=" + encode(NOUNS[category][random.nextInt(NOUNS[category].length)]) + "&size=20";
+            case 2:
+                int minPrice = random.nextInt(500);
+                return "minPrice=" + minPrice + "&maxPrice=" + (minPrice + 100) + "&inStock=true&size=20";
+            default:
+                return "category=" + encode(CATEGORIES[category]) + "&name="
+                        + encode(ADJECTIVES[random.nextInt(ADJECTIVES.length)]) + "&page=" + random.nextInt(3) + "&size=20";
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return builder(path, token).GET().build();
+    }
+
+    private HttpRequest.Builder json(String path, String token) {
+        return builder(path, token).header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30));
+        return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+    }
+
+    private String login(String email, String password) throws Exception {
+        HttpRequest request = json("/api/auth/login", null)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        objectMapper.writeValueAsString(Map.of("email", email, "password", password))))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "login de " + email + " falhou: " + response.body());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    // Catálogo com nomes, categorias, preços e estoques variados (semente fixa)
+    private String catalogNdjson(int count) throws Exception {
+        Random random = new Random(42);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int category = random.nextInt(CATEGORIES.length);
+            String name = NOUNS[category][random.nextInt(NOUNS[category].length)] + " "
+                    + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + (i + 1);
+            // Preços concentrados abaixo de R$ 200, com cauda até alguns milhares
+            BigDecimal price = BigDecimal.valueOf(Math.round(Math.exp(4.5 + random.nextGaussian() * 1.2) * 100), 2)
+                    .max(new BigDecimal("4.90"));
+            ProductDTO product = new ProductDTO(name, price, "https://example.com/products/" + (i + 1) + ".jpg",
+                    CATEGORIES[category], "Descrição de " + name + " com material, dimensões e cuidados");
+            if (random.nextInt(4) == 0) {
+                product.setOriginalPrice(price.multiply(new BigDecimal("1.25")).setScale(2, RoundingMode.HALF_UP));
+            }
+            product.setRating(Math.round((1 + random.nextDouble() * 4) * 10) / 10.0);
+            product.setStockQuantity(random.nextInt(10) == 0 ? 0 : random.nextInt(500));
+            ndjson.append(objectMapper.writeValueAsString(product)).append('\n');
+        }
+        return ndjson.toString();
+    }
+
+    private void printReport(Map<Endpoint, Histogram> histograms) {
+        System.out.printf("%nTaxa %d req/s, %d s medidos, %d clientes, %d produtos (latências em ms)%n",
+                rate, durationSeconds, clients, productIds.length);
+        System.out.printf("%-13s %8s %8s %8s %8s %8s %8s %8s%n", "endpoint", "count", "p50", "p90", "p99", "max", "budget", "errors");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = histograms.get(endpoint);
+            System.out.printf("%-13s %8d %8.1f %8.1f %8.1f %8.1f %8d %8d%n", endpoint.key, histogram.getTotalCount(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getMaxValue()),
+                    budgetMillis(endpoint), errors.get(endpoint).get());
+        }
+    }
+
+    private long budgetMillis(Endpoint endpoint) {
+        return environment.getProperty("load.p99-ms." + endpoint.key, Long.class, endpoint.defaultP99Millis);
+    }
+
+    private Endpoint pick(int[] cumulativeWeights) {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return Endpoint.values()[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static int[] cumulativeWeights() {
+        Endpoint[] endpoints = Endpoint.values();
+        int[] cumulative = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += endpoints[i].weight;
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    // Uma virtual thread por requisição; em Java 17 (sem virtual threads), um pool fixo de clientes
+    private static ExecutorService newClientExecutor(int clients) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(clients);
+        }
+    }
+
+    private long randomProductId() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -2,8 +2,12 @@ package com.project.ecommerce;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC só no contexto da API reativa (ReactiveCatalogConfig): aqui ele
+// substituiria o DataSource do JPA e criaria um segundo gerenciador de transações
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class EcommerceApplication {
 
 	public static void main(String[] args) {
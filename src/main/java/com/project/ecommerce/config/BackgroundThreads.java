@@ -0,0 +1,38 @@
+package com.project.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Threads das tarefas em segundo plano da aplicação (gravação da venda
+ * relâmpago, expiração de reservas). Com spring.threads.virtual.enabled em
+ * Java 21+ — o mesmo critério que o Spring Boot usa para o Tomcat e o
+ * applicationTaskExecutor — são threads virtuais; caso contrário, threads
+ * daemon de plataforma.
+ */
+@Component
+public class BackgroundThreads {
+
+    @Autowired
+    private Environment environment;
+
+    public boolean isVirtual() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    public ThreadFactory factory(String name) {
+        if (isVirtual()) {
+            return new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory();
+        }
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -2,10 +2,15 @@ package com.project.ecommerce.config;
 
 import com.project.ecommerce.entity.User;
 import com.project.ecommerce.repository.UserRepository;
+import com.project.ecommerce.tracing.Tracer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.project.ecommerce.tracing.TraceCategory.STARTUP;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
 
 @Component
 public class DataLoader implements CommandLineRunner {
@@ -16,7 +21,9 @@ public class DataLoader implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    // Consulta e inserção na mesma transação, no primário mesmo com réplica
     @Override
+    @Transactional
     public void run(String... args) throws Exception {
         // Criar usuário admin padrão se não existir.
         if (!userRepository.existsByEmail("admin@ecommerce.com")) {
@@ -28,10 +35,7 @@ public class DataLoader implements CommandLineRunner {
 
             userRepository.save(admin);
 
-            System.out.println("=== USUÁRIO ADMIN CRIADO ===");
-            System.out.println("Email: admin@ecommerce.com");
-            System.out.println("Senha: admin123");
-            System.out.println("============================");
+            Tracer.event(STARTUP, INFO, "user.created", "email", admin.getEmail(), "role", admin.getRole());
         }
 
         // Criar usuário customer para teste se não existir.
@@ -44,10 +48,7 @@ public class DataLoader implements CommandLineRunner {
 
             userRepository.save(customer);
 
-            System.out.println("=== USUÁRIO CUSTOMER CRIADO ===");
-            System.out.println("Email: customer@test.com");
-            System.out.println("Senha: customer123");
-            System.out.println("================================");
+            Tracer.event(STARTUP, INFO, "user.created", "email", customer.getEmail(), "role", customer.getRole());
         }
     }
 }
@@ -0,0 +1,80 @@
+package com.project.ecommerce.config;
+
+import com.project.ecommerce.controller.ReactiveProductController;
+import com.project.ecommerce.repository.ReactiveProductRepository;
+import com.project.ecommerce.security.JwtUtil;
+import com.project.ecommerce.security.ReactiveJwtAuthenticationFilter;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Contexto da API reativa de leitura do catálogo, iniciado pelo
+ * ReactiveCatalogServer com servidor Netty próprio. Só é montado em aplicação
+ * REACTIVE: na aplicação principal (servlet) a varredura de componentes
+ * ignora esta classe, o ReactiveProductController e o ReactiveProductRepository.
+ *
+ * O banco é lido por R2DBC (spring.r2dbc.*, com pool); JPA e DataSource ficam
+ * de fora. As mesmas regras de acesso da API servlet para /api/products: todo
+ * GET exige um JWT válido.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableAutoConfiguration(exclude = {
+        DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class
+})
+@EnableWebFluxSecurity
+@Import({ReactiveProductController.class, ReactiveProductRepository.class})
+public class ReactiveCatalogConfig {
+
+    // Com o Tomcat no classpath o Spring Boot o escolheria também para o contexto reativo
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtil jwtUtil) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+
+                // Sem sessão: cada requisição traz o próprio token
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+
+                // Preflight de CORS respondido pelo @CrossOrigin do controller
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(HttpMethod.OPTIONS).permitAll()
+                        .anyExchange().authenticated())
+
+                .addFilterAt(new ReactiveJwtAuthenticationFilter(jwtUtil), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
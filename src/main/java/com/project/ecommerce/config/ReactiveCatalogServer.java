@@ -0,0 +1,108 @@
+package com.project.ecommerce.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.ecommerce.search.ProductSearchIndex;
+import com.project.ecommerce.security.JwtUtil;
+import com.project.ecommerce.service.CatalogVersion;
+import com.project.ecommerce.tracing.Tracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.logging.LoggingApplicationListener;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.project.ecommerce.tracing.TraceCategory.STARTUP;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+
+/**
+ * API reativa de leitura do catálogo (catalog.reactive.enabled=true). Com a
+ * aplicação pronta, sobe o ReactiveCatalogConfig num segundo contexto Spring,
+ * com Netty em catalog.reactive.port, e o fecha junto com a aplicação.
+ *
+ * Os contextos não são pai e filho, para que eventos de um não disparem os
+ * listeners do outro; o reativo recebe só os beans de SHARED_BEANS (JWT,
+ * versão do catálogo, índice de busca, JSON e métricas). Ele lê as mesmas
+ * propriedades e argumentos da aplicação, com spring.r2dbc.* apontando para o
+ * mesmo banco (ou para a réplica).
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.reactive.enabled", havingValue = "true")
+public class ReactiveCatalogServer {
+
+    private static final List<Class<?>> SHARED_BEANS = List.of(
+            JwtUtil.class,
+            CatalogVersion.class,
+            ProductSearchIndex.class,
+            ObjectMapper.class,
+            MeterRegistry.class,
+            ObservationRegistry.class);
+
+    @Value("${catalog.reactive.port:8081}")
+    private int port;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ApplicationArguments applicationArguments;
+
+    private volatile ConfigurableApplicationContext reactiveContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        SpringApplication application = new SpringApplication(ReactiveCatalogConfig.class);
+        application.setWebApplicationType(WebApplicationType.REACTIVE);
+        application.setBannerMode(Banner.Mode.OFF);
+        application.setLogStartupInfo(false);
+
+        // O logging já foi configurado pela aplicação principal
+        application.setListeners(application.getListeners().stream()
+                .filter(listener -> !(listener instanceof LoggingApplicationListener))
+                .collect(Collectors.toList()));
+
+        application.addInitializers(context -> {
+            for (Class<?> type : SHARED_BEANS) {
+                context.getBeanFactory().registerSingleton(
+                        StringUtils.uncapitalize(type.getSimpleName()), applicationContext.getBean(type));
+            }
+            // Precedência sobre application.properties e argumentos: server.port é o da aplicação principal
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("reactiveCatalog", Map.of(
+                    "server.port", port,
+                    // Actuator só na aplicação principal
+                    "management.server.port", -1)));
+        });
+
+        reactiveContext = application.run(applicationArguments.getSourceArgs());
+        Tracer.event(STARTUP, INFO, "reactive-catalog.started", "port", getPort());
+    }
+
+    // Porta efetiva do servidor reativo (útil com catalog.reactive.port=0)
+    public int getPort() {
+        return ((WebServerApplicationContext) reactiveContext).getWebServer().getPort();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        if (reactiveContext != null) {
+            reactiveContext.close();
+        }
+    }
+}
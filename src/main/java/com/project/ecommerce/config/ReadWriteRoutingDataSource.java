@@ -0,0 +1,50 @@
+package com.project.ecommerce.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Escolhe o banco de cada conexão pela transação corrente: transações
+ * readOnly vão para a réplica, todo o resto para o primário. Precisa ficar
+ * atrás de um LazyConnectionDataSourceProxy, para que a conexão só seja
+ * obtida depois que o gerenciador de transações marcou o readOnly.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        primaryCounter = routeCounter(meterRegistry, "primary");
+        replicaCounter = routeCounter(meterRegistry, "replica");
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.connections")
+                .tag("route", route)
+                .description("Conexões obtidas por destino do roteamento")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            replicaCounter.increment();
+            return Route.REPLICA;
+        }
+        primaryCounter.increment();
+        return Route.PRIMARY;
+    }
+}
@@ -1,6 +1,7 @@
 package com.project.ecommerce.config;
 
 import com.project.ecommerce.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -68,6 +69,9 @@ public class SecurityConfig {
 
                 // Configurar autorização de requisições
                 .authorizeHttpRequests(authz -> authz
+                        // Dispatch assíncrono (respostas em streaming) já foi autorizado na requisição original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Endpoints públicos — não precisam de autenticação
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
@@ -80,6 +84,7 @@ public class SecurityConfig {
 
                         // Endpoints de admin - precisam de role ADMIN
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // Endpoints de usuário — precisam de autenticação
                         .requestMatchers("/api/user/**").hasAnyRole("USER", "ADMIN")
@@ -0,0 +1,75 @@
+package com.project.ecommerce.controller;
+
+import com.project.ecommerce.annotation.AdminOnly;
+import com.project.ecommerce.security.JwtKeyRing;
+import com.project.ecommerce.tracing.Tracer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.project.ecommerce.tracing.TraceCategory.JWT;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+
+// Rotação e revogação das chaves de assinatura JWT em tempo de execução
+@RestController
+@RequestMapping("api/admin/jwt-keys")
+@CrossOrigin(origins = "*")
+public class AdminJwtKeyController {
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    // Kid da chave que assina os novos tokens
+    @GetMapping("/active")
+    public ResponseEntity<Map<String, String>> getActiveKey() {
+        Map<String, String> response = new HashMap<>();
+        response.put("kid", keyRing.getActiveKid());
+        return ResponseEntity.ok(response);
+    }
+
+    // Rotacionar: "secret" passa a assinar e a chave anterior só verifica até expirar
+    @PostMapping("/rotate")
+    @AdminOnly
+    public ResponseEntity<?> rotate(@RequestBody Map<String, String> request) {
+        try {
+            String kid = keyRing.rotate(request.get("secret"));
+            Tracer.event(JWT, INFO, "jwt.key.rotated", "kid", kid);
+
+            Map<String, String> response = new HashMap<>();
+            response.put("kid", kid);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    // Revogar uma chave antiga: os tokens assinados por ela deixam de valer na hora
+    @DeleteMapping("/{kid}")
+    @AdminOnly
+    public ResponseEntity<?> revoke(@PathVariable String kid) {
+        if (!keyRing.isKnown(kid)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Chave não encontrada: " + kid);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+
+        try {
+            keyRing.revoke(kid);
+            Tracer.event(JWT, INFO, "jwt.key.revoked", "kid", kid);
+
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Chave revogada com sucesso");
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package com.project.ecommerce.controller;
 
 import com.project.ecommerce.annotation.AdminOnly;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.ecommerce.dto.FlashSaleDTO;
+import com.project.ecommerce.dto.ImportReportDTO;
 import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.exception.ProductConflictException;
+import com.project.ecommerce.service.FlashSaleService;
+import com.project.ecommerce.service.ProductImportService;
 import com.project.ecommerce.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +32,15 @@ public class AdminProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Listar todos os produtos (incluindo fora de estoque)
     @GetMapping
     public ResponseEntity<List<ProductDTO>> getAllProducts() {
@@ -33,6 +52,18 @@ public class AdminProductController {
         }
     }
 
+    // Listar todos os produtos em streaming (NDJSON, um produto por linha)
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        return NdjsonResponses.<ProductDTO>stream(objectMapper, productService::streamAllProducts);
+    }
+
+    // Listar as vendas relâmpago ativas
+    @GetMapping("/flash-sales")
+    public ResponseEntity<List<FlashSaleDTO>> getActiveFlashSales() {
+        return ResponseEntity.ok(flashSaleService.getActiveSales());
+    }
+
     // Buscar produto por ID
     @GetMapping("/{id}")
     public ResponseEntity<?> getProductById(@PathVariable Long id) {
@@ -66,13 +97,37 @@ public class AdminProductController {
         }
     }
 
+    // Importar produtos em massa: CSV com cabeçalho (text/csv) ou NDJSON (application/x-ndjson).
+    // Responde com o relatório por linha mesmo quando parte das linhas é rejeitada
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @AdminOnly
+    public ResponseEntity<?> importProducts(HttpServletRequest request) {
+        try {
+            ProductImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(
+                    MediaType.parseMediaType(request.getContentType()))
+                    ? ProductImportService.Format.NDJSON
+                    : ProductImportService.Format.CSV;
+
+            ImportReportDTO report = productImportService.importProducts(request.getReader(), format);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException | IOException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Erro ao importar produtos: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
     // Atualizar produto
     @PutMapping("/{id}")
     @AdminOnly
     public ResponseEntity<?> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDTO productDTO) {
         try {
-            ProductDTO updatedProduct = productService.updateProduct(id, productDTO);
+            ProductDTO updatedProduct = flashSaleService.updateProduct(id, productDTO);
             return ResponseEntity.ok(updatedProduct);
+        } catch (ProductConflictException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -89,7 +144,7 @@ public class AdminProductController {
     @AdminOnly
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
         try {
-            productService.deleteProduct(id);
+            flashSaleService.deleteProduct(id);
             Map<String, String> response = new HashMap<>();
             response.put("message", "Produto deletado com sucesso");
             return ResponseEntity.ok(response);
@@ -116,8 +171,12 @@ public class AdminProductController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
             }
 
-            ProductDTO updatedProduct = productService.updateStock(id, quantity);
+            ProductDTO updatedProduct = flashSaleService.updateStock(id, quantity);
             return ResponseEntity.ok(updatedProduct);
+        } catch (ProductConflictException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -128,4 +187,38 @@ public class AdminProductController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    // Ativar venda relâmpago; "quantity" (opcional) define o estoque da venda
+    @PostMapping("/{id}/flash-sale")
+    @AdminOnly
+    public ResponseEntity<?> enableFlashSale(@PathVariable Long id,
+                                             @RequestBody(required = false) Map<String, Integer> request) {
+        try {
+            Integer quantity = request != null ? request.get("quantity") : null;
+            FlashSaleDTO flashSale = flashSaleService.enable(id, quantity);
+            return ResponseEntity.status(HttpStatus.CREATED).body(flashSale);
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
+    // Encerrar venda relâmpago, gravando as vendas pendentes
+    @DeleteMapping("/{id}/flash-sale")
+    @AdminOnly
+    public ResponseEntity<?> disableFlashSale(@PathVariable Long id) {
+        try {
+            ProductDTO product = flashSaleService.disable(id);
+            return ResponseEntity.ok(product);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
 }
@@ -4,10 +4,24 @@ import com.project.ecommerce.dto.AuthResponse;
 import com.project.ecommerce.dto.LoginRequest;
 import com.project.ecommerce.dto.RegisterRequest;
 import com.project.ecommerce.service.AuthService;
+import com.project.ecommerce.service.LoginExecutor;
+import com.project.ecommerce.tracing.Tracer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.project.ecommerce.tracing.TraceCategory.AUTH;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+import static com.project.ecommerce.tracing.TraceLevel.WARN;
+
 
 @RestController
 @RequestMapping("/api/auth")
@@ -17,27 +31,43 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    // Logins rodam no pool dedicado; a thread do Tomcat é liberada durante o BCrypt
+    @Autowired
+    private LoginExecutor loginExecutor;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
         try {
-            AuthResponse response = authService.login(loginRequest);
-            System.out.println("Login bem-sucedido para: " + loginRequest.getEmail());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            System.err.println("Erro no login: " + e.getMessage());
-            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+            return loginExecutor.submit(() -> authService.login(loginRequest))
+                    .<ResponseEntity<?>>handle((response, e) -> {
+                        if (e != null) {
+                            Tracer.event(AUTH, INFO, "login.failed", "email", loginRequest.getEmail(), "error", rootMessage(e));
+                            return ResponseEntity.badRequest().body("Erro: " + rootMessage(e));
+                        }
+                        Tracer.event(AUTH, INFO, "login.success", "email", loginRequest.getEmail());
+                        return ResponseEntity.ok(response);
+                    });
+        } catch (RejectedExecutionException e) {
+            Tracer.event(AUTH, WARN, "login.rejected", "queueDepth", loginExecutor.getQueueDepth());
+            return CompletableFuture.completedFuture(loginBusy());
         }
     }
 
     @PostMapping("/login-admin")
-    public ResponseEntity<?> loginAdmin(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> loginAdmin(@RequestBody LoginRequest loginRequest) {
         try {
-            AuthResponse response = authService.loginAdmin(loginRequest);
-            System.out.println("Login admin bem-sucedido para: " + loginRequest.getEmail());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            System.err.println("Erro no login admin: " + e.getMessage());
-            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+            return loginExecutor.submit(() -> authService.loginAdmin(loginRequest))
+                    .<ResponseEntity<?>>handle((response, e) -> {
+                        if (e != null) {
+                            Tracer.event(AUTH, INFO, "login-admin.failed", "email", loginRequest.getEmail(), "error", rootMessage(e));
+                            return ResponseEntity.badRequest().body("Erro: " + rootMessage(e));
+                        }
+                        Tracer.event(AUTH, INFO, "login-admin.success", "email", loginRequest.getEmail());
+                        return ResponseEntity.ok(response);
+                    });
+        } catch (RejectedExecutionException e) {
+            Tracer.event(AUTH, WARN, "login-admin.rejected", "queueDepth", loginExecutor.getQueueDepth());
+            return CompletableFuture.completedFuture(loginBusy());
         }
     }
 
@@ -45,11 +75,25 @@ public class AuthController {
     public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest) {
         try {
             authService.register(registerRequest);
-            System.out.println("Usuário registrado: " + registerRequest.getEmail());
+            Tracer.event(AUTH, INFO, "register.success", "email", registerRequest.getEmail());
             return ResponseEntity.ok("Usuário registrado com sucesso");
         } catch (Exception e) {
-            System.err.println("Erro no registro: " + e.getMessage());
+            Tracer.event(AUTH, INFO, "register.failed", "email", registerRequest.getEmail(), "error", e.getMessage());
             return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
         }
     }
+
+    // Fila de login cheia: rejeitar rápido em vez de segurar a conexão
+    private ResponseEntity<?> loginBusy() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Serviço de login sobrecarregado. Tente novamente em instantes.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage();
+    }
 }
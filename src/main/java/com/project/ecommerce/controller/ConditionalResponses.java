@@ -0,0 +1,29 @@
+package com.project.ecommerce.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * GET condicional (If-None-Match / If-Modified-Since). A checagem é feita
+ * antes de carregar os dados: se o cliente já tem a versão atual a resposta é
+ * 304 sem corpo; caso contrário ETag e Last-Modified já ficam na resposta.
+ */
+final class ConditionalResponses {
+
+    // Permite guardar a resposta, mas exige revalidação a cada uso
+    private static final String CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Retorna true se a resposta já foi marcada como 304 (o handler deve retornar null)
+     */
+    static boolean checkNotModified(ServletWebRequest request, String etag, long lastModifiedMillis) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return request.checkNotModified(etag, lastModifiedMillis);
+    }
+}
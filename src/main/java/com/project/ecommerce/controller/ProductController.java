@@ -1,15 +1,30 @@
 package com.project.ecommerce.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.ecommerce.dto.FacetsDTO;
 import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.dto.ProductSummaryDTO;
+import com.project.ecommerce.dto.SearchResultDTO;
+import com.project.ecommerce.dto.StockAvailabilityDTO;
+import com.project.ecommerce.exception.InsufficientStockException;
+import com.project.ecommerce.exception.ProductConflictException;
+import com.project.ecommerce.service.CatalogVersion;
+import com.project.ecommerce.service.FlashSaleService;
+import com.project.ecommerce.service.ProductFacetService;
 import com.project.ecommerce.service.ProductService;
+import com.project.ecommerce.service.StockReservationService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,62 +39,130 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductFacetService productFacetService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Listar todos os produtos
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> products = productService.getAllProducts();
+    public ResponseEntity<List<ProductSummaryDTO>> getAllProducts(ServletWebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+
+        List<ProductSummaryDTO> products = productService.getAllProductSummaries();
         return ResponseEntity.ok(products);
     }
 
+    // Listar todos os produtos em streaming (NDJSON, um produto por linha)
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        return NdjsonResponses.<ProductDTO>stream(objectMapper, productService::streamAllProducts);
+    }
+
     // Listar produtos em estoque
     @GetMapping("/in-stock")
-    public ResponseEntity<List<ProductDTO>> getProductsInStock() {
-        List<ProductDTO> products = productService.getProductsInStock();
+    public ResponseEntity<List<ProductSummaryDTO>> getProductsInStock(ServletWebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+
+        List<ProductSummaryDTO> products = productService.getProductsInStock();
         return ResponseEntity.ok(products);
     }
 
-    // Buscar produto por ID
+    // Buscar produto por ID. A ETag (id + updatedAt) sai do produto em cache, então
+    // o banco só é consultado num miss
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id, ServletWebRequest webRequest) {
         Optional<ProductDTO> product = productService.getProductByID(id);
-        return product.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        if (product.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Instant lastModified = product.get().getLastModified();
+        if (ConditionalResponses.checkNotModified(webRequest,
+                productEtag(id, lastModified), lastModified.toEpochMilli())) {
+            return null;
+        }
+
+        return ResponseEntity.ok(product.get());
     }
 
     // Buscar produtos por categoria
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable String category) {
-        List<ProductDTO> products = productService.getProductsByCategory(category);
+    public ResponseEntity<List<ProductSummaryDTO>> getProductsByCategory(@PathVariable String category,
+                                                                         ServletWebRequest webRequest) {
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+
+        List<ProductSummaryDTO> products = productService.getProductsByCategory(category);
         return ResponseEntity.ok(products);
     }
 
-    // Buscar produtos por paginação
+    // Buscar produtos por paginação. Com o parâmetro "cursor" (vazio na primeira
+    // página) usa paginação por keyset e responde sem total de elementos
     @GetMapping("/paginated")
-    public ResponseEntity<Page<ProductDTO>> getProductsPaginated(
+    public ResponseEntity<?> getProductsPaginated(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            ServletWebRequest webRequest
     ) {
-        Page<ProductDTO> products = productService.getProductsWithPagination(page, size, sortBy, sortDir);
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+
+        if (cursor != null) {
+            return ResponseEntity.ok(productService.getProductsAfterCursor(cursor, size, sortBy, sortDir));
+        }
+
+        Page<ProductSummaryDTO> products = productService.getProductsWithPagination(page, size, sortBy, sortDir);
         return ResponseEntity.ok(products);
     }
 
-    // Buscar produtos com filtros
+    // Buscar produtos com filtros (aceita "cursor" como em /paginated). Com "facets"
+    // (category, inStock, price) a resposta traz também as contagens das facetas
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductDTO>> searchProducts(
+    public ResponseEntity<?> searchProducts(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Boolean inStock,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) String name,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) List<String> facets,
+            ServletWebRequest webRequest
     ) {
-        Page<ProductDTO> products = productService.searchProducts(
-                category, inStock, minPrice, maxPrice, name, page, size
-        );
-        return ResponseEntity.ok(products);
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+
+        Object products = cursor != null
+                ? productService.searchProductsAfterCursor(category, inStock, minPrice, maxPrice, name, cursor, size)
+                : productService.searchProducts(category, inStock, minPrice, maxPrice, name, page, size);
+
+        if (facets == null || facets.isEmpty()) {
+            return ResponseEntity.ok(products);
+        }
+
+        FacetsDTO facetCounts = productFacetService.getFacets(facets, category, inStock, minPrice, maxPrice, name);
+        return ResponseEntity.ok(new SearchResultDTO<>(products, facetCounts));
     }
 
     // Criar produto
@@ -99,8 +182,12 @@ public class ProductController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDTO productDTO) {
         try {
-            ProductDTO updatedProduct = productService.updateProduct(id, productDTO);
+            ProductDTO updatedProduct = flashSaleService.updateProduct(id, productDTO);
             return ResponseEntity.ok(updatedProduct);
+        } catch (ProductConflictException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -116,7 +203,7 @@ public class ProductController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
         try {
-            productService.deleteProduct(id);
+            flashSaleService.deleteProduct(id);
             Map<String, String> response = new HashMap<>();
             response.put("message", "Produto deletado com sucesso!");
             return ResponseEntity.ok(response);
@@ -131,12 +218,64 @@ public class ProductController {
     @PatchMapping("/{id}/stock")
     public ResponseEntity<?> updateStock(@PathVariable Long id, @RequestParam Integer quantity) {
         try {
-            ProductDTO updatedProduct = productService.updateStock(id, quantity);
+            ProductDTO updatedProduct = flashSaleService.updateStock(id, quantity);
             return ResponseEntity.ok(updatedProduct);
+        } catch (ProductConflictException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
+
+    // Disponível para venda: estoque menos as reservas ativas
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<?> getAvailability(@PathVariable Long id) {
+        try {
+            StockAvailabilityDTO availability = stockReservationService.getAvailability(id);
+            return ResponseEntity.ok(availability);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
+    // Baixar estoque (compra). Responde 409 se não houver quantidade suficiente.
+    // Produtos em venda relâmpago são atendidos pelo contador em memória; nos dois
+    // caminhos as unidades retidas por reservas não podem ser vendidas
+    @PostMapping("/{id}/stock/decrement")
+    public ResponseEntity<?> decrementStock(@PathVariable Long id, @RequestParam Integer quantity) {
+        try {
+            ProductDTO updatedProduct = stockReservationService.purchase(id, quantity);
+            return ResponseEntity.ok(updatedProduct);
+        } catch (InsufficientStockException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
+    // Listagens: ETag e Last-Modified derivados da versão do catálogo
+    private boolean catalogNotModified(ServletWebRequest webRequest) {
+        return ConditionalResponses.checkNotModified(webRequest,
+                catalogVersion.etag(), catalogVersion.lastModifiedMillis());
+    }
+
+    // ETag forte de um produto: id + updatedAt em microssegundos
+    static String productEtag(Long id, Instant updatedAt) {
+        long micros = updatedAt.getEpochSecond() * 1_000_000L + updatedAt.getNano() / 1_000;
+        return "\"p" + id + "-" + Long.toString(micros, 36) + "\"";
+    }
 }
@@ -0,0 +1,185 @@
+package com.project.ecommerce.controller;
+
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.dto.ProductSummaryDTO;
+import com.project.ecommerce.repository.ReactiveProductRepository;
+import com.project.ecommerce.search.ProductSearchIndex;
+import com.project.ecommerce.service.CatalogVersion;
+import com.project.ecommerce.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * GETs de /api/products na API reativa (porta catalog.reactive.port). Mesmas
+ * rotas, parâmetros, respostas e ETags do ProductController, lidos por R2DBC.
+ * As listagens são Flux: em application/json saem como um array escrito aos
+ * poucos e em application/x-ndjson um produto por linha, sempre no ritmo em
+ * que o cliente lê. Paginação por cursor e facetas ficam só na API servlet.
+ *
+ * O corpo é um Mono/Flux ainda não assinado: se o GET condicional responde
+ * 304, o banco não é consultado.
+ */
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductController {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // Listar todos os produtos
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Flux<ProductSummaryDTO>> getAllProducts() {
+        return catalogResponse(productRepository.findAllSummaries());
+    }
+
+    // Listar todos os produtos com todos os campos, um por linha
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductDTO> streamAllProducts() {
+        return productRepository.streamAll();
+    }
+
+    // Listar produtos em estoque
+    @GetMapping(value = "/in-stock", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Flux<ProductSummaryDTO>> getProductsInStock() {
+        return catalogResponse(productRepository.findSummariesInStock());
+    }
+
+    // Buscar produto por ID, com a ETag conferida antes de carregar o produto
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Mono<ProductDTO>>> getProductById(@PathVariable Long id) {
+        return productRepository.findLastModified(id)
+                .map(lastModified -> ResponseEntity.ok()
+                        .cacheControl(REVALIDATE)
+                        .eTag(ProductController.productEtag(id, lastModified))
+                        .lastModified(lastModified)
+                        .body(productRepository.findById(id)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Buscar produtos por categoria
+    @GetMapping(value = "/category/{category}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Flux<ProductSummaryDTO>> getProductsByCategory(@PathVariable String category) {
+        return catalogResponse(productRepository.findSummariesByCategoryInStock(category));
+    }
+
+    // Buscar produtos em estoque por paginação
+    @GetMapping("/paginated")
+    public ResponseEntity<?> getProductsPaginated(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir
+    ) {
+        try {
+            ProductService.checkPageSize(size);
+            Mono<Page<ProductSummaryDTO>> products = productRepository.findSummariesInStock(
+                    page, size, sortBy, sortDir.equalsIgnoreCase("desc"));
+            return catalogResponse(products);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    // Buscar produtos com filtros; com "name" e o índice de busca pronto, por relevância
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        try {
+            ProductService.checkPageSize(size);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        Mono<Page<ProductSummaryDTO>> products = Mono.defer(() -> {
+            long[] rankedIds = name != null && !name.isBlank() ? searchIndex.search(name) : null;
+            if (rankedIds != null) {
+                return searchIndexedProducts(rankedIds, category, inStock, minPrice, maxPrice, page, size);
+            }
+            return productRepository.findSummaries(category, inStock, minPrice, maxPrice, name, page, size);
+        });
+        return catalogResponse(products);
+    }
+
+    // Aplicar os demais filtros aos IDs ranqueados e paginar por relevância
+    private Mono<Page<ProductSummaryDTO>> searchIndexedProducts(
+            long[] rankedIds,
+            String category,
+            Boolean inStock,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            int page,
+            int size) {
+
+        List<Long> candidates = LongStream.of(rankedIds).boxed().collect(Collectors.toList());
+        Mono<List<Long>> matching = category == null && inStock == null && minPrice == null && maxPrice == null
+                ? Mono.just(candidates)
+                : productRepository.findIdsIn(candidates, category, inStock, minPrice, maxPrice)
+                        .collect(Collectors.toCollection(HashSet::new))
+                        .map(ids -> candidates.stream().filter(ids::contains).collect(Collectors.toList()));
+
+        PageRequest pageable = PageRequest.of(page, size);
+        return matching.flatMap(ids -> {
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            int to = Math.min(from + size, ids.size());
+            List<Long> pageIds = ids.subList(from, to);
+
+            return productRepository.findSummariesByIdIn(pageIds)
+                    .collectMap(ProductSummaryDTO::getId, Function.identity())
+                    .map(byId -> pageIds.stream()
+                            .map(byId::get)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toList()))
+                    .map(content -> new PageImpl<>(content, pageable, ids.size()));
+        });
+    }
+
+    // Listagens: ETag e Last-Modified derivados da versão do catálogo
+    private <T> ResponseEntity<T> catalogResponse(T body) {
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(catalogVersion.etag())
+                .lastModified(catalogVersion.lastModifiedMillis())
+                .body(body);
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.ecommerce.controller;
+
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.dto.ReservationDTO;
+import com.project.ecommerce.dto.ReservationRequest;
+import com.project.ecommerce.exception.InsufficientStockException;
+import com.project.ecommerce.service.StockReservationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+@RestController
+@RequestMapping("/api/reservations")
+@CrossOrigin(origins = "*")
+public class ReservationController {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    // Reservar estoque para o checkout do usuário autenticado
+    @PostMapping
+    public ResponseEntity<?> reserve(@Valid @RequestBody ReservationRequest request) {
+        try {
+            ReservationDTO reservation = stockReservationService.reserve(request.getProductId(),
+                    request.getQuantity(), request.getTtlSeconds(), currentUser());
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+        } catch (RuntimeException e) {
+            return errorResponse(e);
+        }
+    }
+
+    // Confirmar a reserva: baixa o estoque e devolve o produto atualizado
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<?> confirm(@PathVariable String id) {
+        try {
+            ProductDTO product = stockReservationService.confirm(id, currentUser());
+            return ResponseEntity.ok(product);
+        } catch (RuntimeException e) {
+            return errorResponse(e);
+        }
+    }
+
+    // Liberar a reserva sem comprar
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> release(@PathVariable String id) {
+        try {
+            stockReservationService.release(id, currentUser());
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Reserva liberada com sucesso!");
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return errorResponse(e);
+        }
+    }
+
+    private String currentUser() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    private ResponseEntity<?> errorResponse(RuntimeException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+
+        HttpStatus status;
+        if (e instanceof InsufficientStockException) {
+            status = HttpStatus.CONFLICT;
+        } else if (e instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+        } else if (e instanceof AccessDeniedException) {
+            status = HttpStatus.FORBIDDEN;
+        } else {
+            status = HttpStatus.NOT_FOUND;
+        }
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facetas da busca; apenas as solicitadas são preenchidas
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FacetsDTO {
+    private Map<String, Long> category;
+    private Map<String, Long> inStock;
+    private List<PriceBucketDTO> price;
+
+    public FacetsDTO() {}
+
+    public Map<String, Long> getCategory() {
+        return category;
+    }
+
+    public void setCategory(Map<String, Long> category) {
+        this.category = category;
+    }
+
+    public Map<String, Long> getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(Map<String, Long> inStock) {
+        this.inStock = inStock;
+    }
+
+    public List<PriceBucketDTO> getPrice() {
+        return price;
+    }
+
+    public void setPrice(List<PriceBucketDTO> price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.ecommerce.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de uma venda relâmpago: estoque em memória e vendas ainda não gravadas
+ */
+public class FlashSaleDTO {
+    private Long productId;
+    private int initialStock;
+    private int remaining;
+    private int sold;
+    private int pendingFlush;
+    private LocalDateTime enabledAt;
+
+    public FlashSaleDTO() {}
+
+    public FlashSaleDTO(Long productId, int initialStock, int remaining, int sold, int pendingFlush,
+                        LocalDateTime enabledAt) {
+        this.productId = productId;
+        this.initialStock = initialStock;
+        this.remaining = remaining;
+        this.sold = sold;
+        this.pendingFlush = pendingFlush;
+        this.enabledAt = enabledAt;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getInitialStock() {
+        return initialStock;
+    }
+
+    public void setInitialStock(int initialStock) {
+        this.initialStock = initialStock;
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(int remaining) {
+        this.remaining = remaining;
+    }
+
+    public int getSold() {
+        return sold;
+    }
+
+    public void setSold(int sold) {
+        this.sold = sold;
+    }
+
+    public int getPendingFlush() {
+        return pendingFlush;
+    }
+
+    public void setPendingFlush(int pendingFlush) {
+        this.pendingFlush = pendingFlush;
+    }
+
+    public LocalDateTime getEnabledAt() {
+        return enabledAt;
+    }
+
+    public void setEnabledAt(LocalDateTime enabledAt) {
+        this.enabledAt = enabledAt;
+    }
+}
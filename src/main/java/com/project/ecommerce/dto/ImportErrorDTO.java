@@ -0,0 +1,34 @@
+package com.project.ecommerce.dto;
+
+import java.util.List;
+
+/**
+ * Linha rejeitada na importação de produtos
+ */
+public class ImportErrorDTO {
+    private long line;
+    private List<String> errors;
+
+    public ImportErrorDTO() {}
+
+    public ImportErrorDTO(long line, List<String> errors) {
+        this.line = line;
+        this.errors = errors;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
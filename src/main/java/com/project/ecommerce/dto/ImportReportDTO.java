@@ -0,0 +1,85 @@
+package com.project.ecommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relatório da importação em massa. A lista de erros é limitada; além do
+ * limite só a contagem de rejeitados continua crescendo (errorsTruncated).
+ */
+public class ImportReportDTO {
+    private long totalRows;
+    private long imported;
+    private long rejected;
+    private int chunks;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private boolean errorsTruncated;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    public ImportReportDTO() {}
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+}
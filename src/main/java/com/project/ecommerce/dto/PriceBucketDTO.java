@@ -0,0 +1,44 @@
+package com.project.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Faixa do histograma de preços: [from, to), com "to" nulo na última faixa
+ */
+public class PriceBucketDTO {
+    private BigDecimal from;
+    private BigDecimal to;
+    private long count;
+
+    public PriceBucketDTO() {}
+
+    public PriceBucketDTO(BigDecimal from, BigDecimal to, long count) {
+        this.from = from;
+        this.to = to;
+        this.count = count;
+    }
+
+    public BigDecimal getFrom() {
+        return from;
+    }
+
+    public void setFrom(BigDecimal from) {
+        this.from = from;
+    }
+
+    public BigDecimal getTo() {
+        return to;
+    }
+
+    public void setTo(BigDecimal to) {
+        this.to = to;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
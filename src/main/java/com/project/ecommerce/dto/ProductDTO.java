@@ -1,8 +1,10 @@
 package com.project.ecommerce.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 public class ProductDTO {
 
@@ -37,6 +39,13 @@ public class ProductDTO {
     @Min(value = 0, message = "Quantidade em estoque deve ser maior ou igual a 0")
     private Integer stockQuantity = 0;
 
+    // Versão lida pelo cliente; no PUT, se informada, precisa ser a atual
+    private Long version;
+
+    // Última alteração (updatedAt) lida do banco, para ETag e Last-Modified; fora do JSON
+    @JsonIgnore
+    private Instant lastModified;
+
     // Constructors
 
     public ProductDTO() {}
@@ -130,4 +139,20 @@ public class ProductDTO {
     public void setStockQuantity(Integer stockQuantity) {
         this.stockQuantity = stockQuantity;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
 }
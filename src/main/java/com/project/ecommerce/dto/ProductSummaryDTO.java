@@ -0,0 +1,96 @@
+package com.project.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Campos de card usados nas listagens. Montado direto pela consulta
+ * (constructor expression), sem carregar a descrição nem entidades gerenciadas.
+ */
+public class ProductSummaryDTO {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private BigDecimal originalPrice;
+    private String image;
+    private String category;
+    private Double rating;
+    private Boolean inStock;
+
+    public ProductSummaryDTO() {}
+
+    public ProductSummaryDTO(Long id, String name, BigDecimal price, BigDecimal originalPrice,
+                             String image, String category, Double rating, Boolean inStock) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.originalPrice = originalPrice;
+        this.image = image;
+        this.category = category;
+        this.rating = rating;
+        this.inStock = inStock;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public BigDecimal getOriginalPrice() {
+        return originalPrice;
+    }
+
+    public void setOriginalPrice(BigDecimal originalPrice) {
+        this.originalPrice = originalPrice;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public void setImage(String image) {
+        this.image = image;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Double getRating() {
+        return rating;
+    }
+
+    public void setRating(Double rating) {
+        this.rating = rating;
+    }
+
+    public Boolean getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(Boolean inStock) {
+        this.inStock = inStock;
+    }
+}
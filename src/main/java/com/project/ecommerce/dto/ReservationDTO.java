@@ -0,0 +1,54 @@
+package com.project.ecommerce.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reserva de estoque ativa (checkout em andamento)
+ */
+public class ReservationDTO {
+    private String id;
+    private Long productId;
+    private int quantity;
+    private LocalDateTime expiresAt;
+
+    public ReservationDTO() {}
+
+    public ReservationDTO(String id, Long productId, int quantity, LocalDateTime expiresAt) {
+        this.id = id;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.ecommerce.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class ReservationRequest {
+    @NotNull(message = "Produto é obrigatório")
+    private Long productId;
+
+    @NotNull(message = "Quantidade é obrigatória")
+    @Min(value = 1, message = "Quantidade deve ser maior que zero")
+    private Integer quantity;
+
+    // Opcional: sem valor vale stock-reservation.ttl-seconds
+    private Long ttlSeconds;
+
+    // Constructors
+
+    public ReservationRequest() {}
+
+    public ReservationRequest(Long productId, Integer quantity, Long ttlSeconds) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    // Getters and Setters
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
@@ -0,0 +1,32 @@
+package com.project.ecommerce.dto;
+
+/**
+ * Resultado da busca acompanhado das facetas solicitadas
+ */
+public class SearchResultDTO<T> {
+    private T results;
+    private FacetsDTO facets;
+
+    public SearchResultDTO() {}
+
+    public SearchResultDTO(T results, FacetsDTO facets) {
+        this.results = results;
+        this.facets = facets;
+    }
+
+    public T getResults() {
+        return results;
+    }
+
+    public void setResults(T results) {
+        this.results = results;
+    }
+
+    public FacetsDTO getFacets() {
+        return facets;
+    }
+
+    public void setFacets(FacetsDTO facets) {
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.ecommerce.dto;
+
+/**
+ * Disponível para venda: estoque menos as reservas ativas
+ */
+public class StockAvailabilityDTO {
+    private Long productId;
+    private int stockQuantity;
+    private int reserved;
+    private int available;
+
+    public StockAvailabilityDTO() {}
+
+    public StockAvailabilityDTO(Long productId, int stockQuantity, int reserved) {
+        this.productId = productId;
+        this.stockQuantity = stockQuantity;
+        this.reserved = reserved;
+        this.available = Math.max(0, stockQuantity - reserved);
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public void setStockQuantity(int stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
+
+    public int getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,25 @@
+package com.project.ecommerce.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id gerado por sequência com otimizador pooled/pooled-lo. Diferente de
+ * IDENTITY, o id é conhecido antes do INSERT, o que permite ao Hibernate
+ * agrupar os inserts em lotes JDBC. O tamanho do bloco vem da configuração
+ * (ver {@link PooledSequenceGenerator}).
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+
+    /**
+     * Nome da sequência no banco
+     */
+    String name();
+}
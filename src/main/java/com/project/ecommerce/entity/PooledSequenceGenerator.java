@@ -0,0 +1,42 @@
+package com.project.ecommerce.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Gerador das entidades anotadas com {@link PooledSequence}. Cada chamada à
+ * sequência reserva um bloco de ids do tamanho de
+ * spring.jpa.properties.ecommerce.id.allocation-size (a sequência é criada
+ * com o mesmo incremento). O otimizador segue
+ * hibernate.id.optimizer.pooled.preferred (pooled ou pooled-lo).
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "ecommerce.id.allocation-size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String sequenceName;
+
+    public PooledSequenceGenerator(PooledSequence config) {
+        this.sequenceName = config.name();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        if (allocationSize < 1) {
+            throw new MappingException(ALLOCATION_SIZE_SETTING + " deve ser maior que zero");
+        }
+
+        parameters.setProperty(SEQUENCE_PARAM, sequenceName);
+        parameters.setProperty(INCREMENT_PARAM, Integer.toString(allocationSize));
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -7,11 +7,21 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Índices (chave de ordenação, id) para a paginação por cursor
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_rating_id", columnList = "rating, id"),
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        // Índices compostos para as combinações de filtros da busca
+        @Index(name = "idx_products_category_stock_price", columnList = "category, in_stock, price"),
+        @Index(name = "idx_products_stock_price", columnList = "in_stock, price"),
+        @Index(name = "idx_products_stock_name_id", columnList = "in_stock, name, id")
+})
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "products_seq")
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
@@ -57,6 +67,10 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Controle otimista: updates da entidade inteira falham se outra transação gravou antes
+    @Version
+    private Long version;
+
     // Constructors
     public Product() {}
 
@@ -178,4 +192,12 @@ public class Product {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,5 +1,6 @@
 package com.project.ecommerce.entity;
 
+import com.project.ecommerce.security.UserRoleDirectoryListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -7,9 +8,10 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserRoleDirectoryListener.class)
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "users_seq")
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
@@ -0,0 +1,11 @@
+package com.project.ecommerce.exception;
+
+/**
+ * Baixa de estoque recusada: o produto não tem a quantidade pedida
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(Long productId, int quantity) {
+        super("Estoque insuficiente para o produto " + productId + " (quantidade solicitada: " + quantity + ")");
+    }
+}
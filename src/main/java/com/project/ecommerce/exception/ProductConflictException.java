@@ -0,0 +1,11 @@
+package com.project.ecommerce.exception;
+
+/**
+ * Atualização recusada porque o produto foi alterado depois da versão lida pelo cliente
+ */
+public class ProductConflictException extends RuntimeException {
+
+    public ProductConflictException(Long productId) {
+        super("Produto " + productId + " foi alterado por outra operação; recarregue e tente novamente");
+    }
+}
@@ -0,0 +1,129 @@
+package com.project.ecommerce.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Posição de uma paginação por keyset: campo e direção da ordenação mais o
+ * último valor e ID vistos. Trafega como token opaco (Base64 URL-safe).
+ */
+public final class ProductCursor {
+
+    private static final int VERSION = 1;
+
+    // Campos ordenáveis (todos NOT NULL) e o tipo do valor guardado no cursor
+    private static final Map<String, Class<?>> SORT_KEYS = Map.of(
+            "name", String.class,
+            "price", BigDecimal.class,
+            "rating", Double.class,
+            "createdAt", LocalDateTime.class,
+            "id", Long.class);
+
+    private final String sortBy;
+    private final boolean descending;
+    private final Object lastValue;
+    private final Long lastId;
+
+    private ProductCursor(String sortBy, boolean descending, Object lastValue, Long lastId) {
+        this.sortBy = sortBy;
+        this.descending = descending;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Cursor da primeira página
+     */
+    public static ProductCursor first(String sortBy, boolean descending) {
+        if (!SORT_KEYS.containsKey(sortBy)) {
+            throw new IllegalArgumentException("Campo de ordenação não suportado: " + sortBy);
+        }
+        return new ProductCursor(sortBy, descending, null, null);
+    }
+
+    /**
+     * Cursor posicionado depois do item com o valor de ordenação e ID informados
+     */
+    public ProductCursor after(Object lastValue, Long lastId) {
+        return new ProductCursor(sortBy, descending, lastValue, lastId);
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(sortBy);
+            out.writeBoolean(descending);
+            out.writeUTF(lastValue.toString());
+            out.writeLong(lastId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static ProductCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            String sortBy = in.readUTF();
+            boolean descending = in.readBoolean();
+            String value = in.readUTF();
+            long lastId = in.readLong();
+
+            Class<?> type = SORT_KEYS.get(sortBy);
+            if (type == null || in.available() > 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new ProductCursor(sortBy, descending, parse(type, value), lastId);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    private static Object parse(Class<?> type, String value) {
+        if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        }
+        if (type == Double.class) {
+            return Double.valueOf(value);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        }
+        return value;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+}
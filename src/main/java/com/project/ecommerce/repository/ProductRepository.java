@@ -1,18 +1,34 @@
 package com.project.ecommerce.repository;
 
+import com.project.ecommerce.dto.ProductSummaryDTO;
 import com.project.ecommerce.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+
+    // Projeção das listagens: apenas os campos de card, sem a descrição (TEXT)
+    String SUMMARY_SELECT = "SELECT new com.project.ecommerce.dto.ProductSummaryDTO(" +
+            "p.id, p.name, p.price, p.originalPrice, p.image, p.category, p.rating, p.inStock) " +
+            "FROM Product p";
 
     // Buscar produtos por categoria
     List<Product> findByCategory(String category);
@@ -38,19 +54,49 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Buscar produtos com paginação
     Page<Product> findByInStockTrue(Pageable pageable);
 
-    // Query customizada para busca avançada
-    @Query("SELECT p FROM Product p WHERE " +
-            "(:category IS NULL OR p.category = :category) AND " +
-            "(:inStock IS NULL OR p.inStock = :inStock) AND " +
-            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-            "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')))")
-    Page<Product> findProductsWithFilters(
-            @Param("category") String category,
-            @Param("inStock") Boolean inStock,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice,
-            @Param("name") String name,
-            Pageable pageable
-    );
+    // Baixa condicional de estoque em um único UPDATE: só afeta a linha se o estoque,
+    // descontadas as unidades reservadas por outros, cobrir a quantidade; in_stock,
+    // updated_at e a versão acompanham a baixa
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, " +
+            "p.inStock = CASE WHEN p.stockQuantity - :quantity > 0 THEN true ELSE false END, " +
+            "p.updatedAt = :now, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.stockQuantity - :reserved >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("reserved") int reserved,
+                       @Param("now") LocalDateTime now);
+
+    // Gravação das unidades já vendidas pelo contador da venda relâmpago, que é o único
+    // a escrever o estoque enquanto ela está aberta: sem condição de estoque
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, " +
+            "p.inStock = CASE WHEN p.stockQuantity - :quantity > 0 THEN true ELSE false END, " +
+            "p.updatedAt = :now, p.version = p.version + 1 " +
+            "WHERE p.id = :id")
+    int subtractSoldStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Percorrer todos os produtos com cursor JDBC (fetch size) e entidades somente leitura
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+
+    // Listagens em projeção de card
+
+    @Query(SUMMARY_SELECT)
+    List<ProductSummaryDTO> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + " WHERE p.inStock = true")
+    List<ProductSummaryDTO> findSummariesInStock();
+
+    @Query(SUMMARY_SELECT + " WHERE p.category = :category AND p.inStock = true")
+    List<ProductSummaryDTO> findSummariesByCategoryInStock(@Param("category") String category);
+
+    @Query(value = SUMMARY_SELECT + " WHERE p.inStock = true",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.inStock = true")
+    Page<ProductSummaryDTO> findSummariesInStock(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE p.id IN :ids")
+    List<ProductSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
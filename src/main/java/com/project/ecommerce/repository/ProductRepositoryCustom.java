@@ -0,0 +1,43 @@
+package com.project.ecommerce.repository;
+
+import com.project.ecommerce.dto.CursorPageDTO;
+import com.project.ecommerce.dto.ProductSummaryDTO;
+import com.project.ecommerce.entity.Product;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // Buscar página de projeções de card com predicado dinâmico
+    Page<ProductSummaryDTO> findSummaries(Specification<Product> specification, Pageable pageable);
+
+    // Buscar apenas os IDs que satisfazem o predicado
+    List<Long> findIds(Specification<Product> specification);
+
+    // Contar produtos agrupados pelas dimensões de faceta solicitadas, em uma única consulta.
+    // Colunas do Tuple: "category", "inStock", "price" (índice da faixa) conforme solicitado, e "count"
+    List<Tuple> countFacets(
+            Specification<Product> specification,
+            boolean byCategory,
+            boolean byStock,
+            List<BigDecimal> priceBounds
+    );
+
+    // Buscar a página de produtos depois da posição do cursor (keyset), aplicando filtros opcionais
+    CursorPageDTO<ProductSummaryDTO> findPageAfterCursor(
+            ProductCursor cursor,
+            String category,
+            Boolean inStock,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String name,
+            Collection<Long> ids,
+            int size
+    );
+}
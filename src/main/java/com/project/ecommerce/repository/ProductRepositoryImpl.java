@@ -0,0 +1,231 @@
+package com.project.ecommerce.repository;
+
+import com.project.ecommerce.dto.CursorPageDTO;
+import com.project.ecommerce.dto.ProductSummaryDTO;
+import com.project.ecommerce.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductSummaryDTO> findSummaries(Specification<Product> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummaryDTO> query = cb.createQuery(ProductSummaryDTO.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(cb.construct(ProductSummaryDTO.class,
+                root.get("id"), root.get("name"), root.get("price"), root.get("originalPrice"),
+                root.get("image"), root.get("category"), root.get("rating"), root.get("inStock")));
+        applyPredicate(specification, root, query, cb);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<ProductSummaryDTO> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        // O COUNT só é executado quando o total não pode ser deduzido da própria página
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable,
+                () -> count(specification));
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Product> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(root.get("id"));
+        applyPredicate(specification, root, query, cb);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Tuple> countFacets(
+            Specification<Product> specification,
+            boolean byCategory,
+            boolean byStock,
+            List<BigDecimal> priceBounds) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        List<Expression<?>> groups = new ArrayList<>();
+        if (byCategory) {
+            Expression<String> category = root.get("category");
+            selections.add(category.alias("category"));
+            groups.add(category);
+        }
+        if (byStock) {
+            Expression<Boolean> inStock = root.get("inStock");
+            selections.add(inStock.alias("inStock"));
+            groups.add(inStock);
+        }
+        if (priceBounds != null) {
+            Expression<Integer> bucket = priceBucket(cb, root.get("price"), priceBounds);
+            selections.add(bucket.alias("price"));
+            groups.add(bucket);
+        }
+        selections.add(cb.count(root).alias("count"));
+
+        query.multiselect(selections);
+        applyPredicate(specification, root, query, cb);
+        query.groupBy(groups);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    // Índice da faixa de preço: i para price < priceBounds[i], ou priceBounds.size() acima do último limite
+    private static Expression<Integer> priceBucket(CriteriaBuilder cb, Expression<BigDecimal> price,
+                                                   List<BigDecimal> priceBounds) {
+        CriteriaBuilder.Case<Integer> bucket = cb.selectCase();
+        for (int i = 0; i < priceBounds.size(); i++) {
+            bucket = bucket.when(cb.lessThan(price, cb.literal(priceBounds.get(i))), cb.literal(i));
+        }
+        return bucket.otherwise(cb.literal(priceBounds.size()));
+    }
+
+    private long count(Specification<Product> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+
+        query.select(cb.count(root));
+        applyPredicate(specification, root, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void applyPredicate(Specification<Product> specification, Root<Product> root,
+                                       CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    // O campo de ordenação vem da lista fixa do ProductCursor, nunca do cliente
+    @Override
+    public CursorPageDTO<ProductSummaryDTO> findPageAfterCursor(
+            ProductCursor cursor,
+            String category,
+            Boolean inStock,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String name,
+            Collection<Long> ids,
+            int size) {
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que zero");
+        }
+
+        String field = "p." + cursor.getSortBy();
+        String direction = cursor.isDescending() ? "DESC" : "ASC";
+
+        // Campos de card mais o valor de ordenação, usado para montar o próximo cursor
+        StringBuilder jpql = new StringBuilder("SELECT p.id, p.name, p.price, p.originalPrice, p.image, " +
+                "p.category, p.rating, p.inStock, ").append(field).append(" FROM Product p WHERE 1 = 1");
+        if (category != null) {
+            jpql.append(" AND p.category = :category");
+        }
+        if (inStock != null) {
+            jpql.append(" AND p.inStock = :inStock");
+        }
+        if (minPrice != null) {
+            jpql.append(" AND p.price >= :minPrice");
+        }
+        if (maxPrice != null) {
+            jpql.append(" AND p.price <= :maxPrice");
+        }
+        if (name != null) {
+            jpql.append(" AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))");
+        }
+        if (ids != null) {
+            jpql.append(" AND p.id IN :ids");
+        }
+
+        // Seek pelo índice (campo, id): comparação de tupla em vez de OFFSET
+        if (!cursor.isFirst()) {
+            String operator = cursor.isDescending() ? "<" : ">";
+            if ("id".equals(cursor.getSortBy())) {
+                jpql.append(" AND p.id ").append(operator).append(" :lastId");
+            } else {
+                jpql.append(" AND (").append(field).append(", p.id) ").append(operator).append(" (:lastValue, :lastId)");
+            }
+        }
+
+        jpql.append(" ORDER BY ").append(field).append(' ').append(direction);
+        if (!"id".equals(cursor.getSortBy())) {
+            jpql.append(", p.id ").append(direction);
+        }
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (category != null) {
+            query.setParameter("category", category);
+        }
+        if (inStock != null) {
+            query.setParameter("inStock", inStock);
+        }
+        if (minPrice != null) {
+            query.setParameter("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            query.setParameter("maxPrice", maxPrice);
+        }
+        if (name != null) {
+            query.setParameter("name", name);
+        }
+        if (ids != null) {
+            query.setParameter("ids", ids);
+        }
+        if (!cursor.isFirst()) {
+            if (!"id".equals(cursor.getSortBy())) {
+                query.setParameter("lastValue", cursor.getLastValue());
+            }
+            query.setParameter("lastId", cursor.getLastId());
+        }
+
+        // Uma linha a mais indica se existe próxima página
+        List<Object[]> rows = query.setMaxResults(size + 1).getResultList();
+        boolean hasNext = rows.size() > size;
+        int count = Math.min(rows.size(), size);
+
+        List<ProductSummaryDTO> content = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Object[] row = rows.get(i);
+            content.add(new ProductSummaryDTO((Long) row[0], (String) row[1], (BigDecimal) row[2],
+                    (BigDecimal) row[3], (String) row[4], (String) row[5], (Double) row[6], (Boolean) row[7]));
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            Object[] last = rows.get(count - 1);
+            nextCursor = cursor.after(last[8], (Long) last[0]).encode();
+        }
+        return new CursorPageDTO<>(content, size, nextCursor);
+    }
+}
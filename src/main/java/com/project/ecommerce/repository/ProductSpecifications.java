@@ -0,0 +1,75 @@
+package com.project.ecommerce.repository;
+
+import com.project.ecommerce.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Predicados de busca de produtos. Apenas os filtros informados entram na
+ * consulta, de modo que cada combinação gera um SQL próprio que pode usar o
+ * índice composto correspondente (em vez de um plano genérico com "? IS NULL OR").
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> hasCategory(String category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Product> inStock(Boolean inStock) {
+        return (root, query, cb) -> cb.equal(root.get("inStock"), inStock);
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> nameContains(String name) {
+        String pattern = "%" + name.toLowerCase(Locale.ROOT) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern);
+    }
+
+    public static Specification<Product> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Combinar os filtros da busca, ignorando os que vierem nulos
+     */
+    public static Specification<Product> withFilters(
+            String category,
+            Boolean inStock,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String name) {
+
+        List<Specification<Product>> specifications = new ArrayList<>();
+        if (category != null) {
+            specifications.add(hasCategory(category));
+        }
+        if (inStock != null) {
+            specifications.add(inStock(inStock));
+        }
+        if (minPrice != null) {
+            specifications.add(priceAtLeast(minPrice));
+        }
+        if (maxPrice != null) {
+            specifications.add(priceAtMost(maxPrice));
+        }
+        if (name != null) {
+            specifications.add(nameContains(name));
+        }
+        return Specification.allOf(specifications);
+    }
+}
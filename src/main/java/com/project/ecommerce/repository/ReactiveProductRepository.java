@@ -0,0 +1,268 @@
+package com.project.ecommerce.repository;
+
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.dto.ProductSummaryDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Consultas de leitura do catálogo por R2DBC, para a API reativa. Espelha as
+ * consultas de ProductRepository usadas pelos GETs de /api/products (mesmas
+ * colunas, filtros e ordenação), mas devolve Flux/Mono: as linhas são
+ * emitidas conforme a demanda de quem consome.
+ *
+ * Só existe no contexto reativo (ReactiveCatalogConfig); a aplicação servlet
+ * continua com o repositório JPA.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductRepository {
+
+    private static final String SUMMARY_SELECT =
+            "SELECT id, name, price, original_price, image, category, rating, in_stock FROM products";
+
+    private static final String PRODUCT_SELECT =
+            "SELECT id, name, price, original_price, image, category, rating, in_stock, " +
+            "description, stock_quantity, version FROM products";
+
+    // Propriedades aceitas em sortBy, como na ordenação por Sort.by da entidade
+    private static final Map<String, String> SORT_COLUMNS = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("name", "name"),
+            Map.entry("price", "price"),
+            Map.entry("originalPrice", "original_price"),
+            Map.entry("image", "image"),
+            Map.entry("category", "category"),
+            Map.entry("rating", "rating"),
+            Map.entry("inStock", "in_stock"),
+            Map.entry("stockQuantity", "stock_quantity"),
+            Map.entry("createdAt", "created_at"),
+            Map.entry("updatedAt", "updated_at"),
+            Map.entry("version", "version"));
+
+    @Value("${catalog.search.id-chunk-size:1000}")
+    private int idChunkSize;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<ProductSummaryDTO> findAllSummaries() {
+        return databaseClient.sql(SUMMARY_SELECT)
+                .map(ReactiveProductRepository::toSummary)
+                .all();
+    }
+
+    public Flux<ProductSummaryDTO> findSummariesInStock() {
+        return databaseClient.sql(SUMMARY_SELECT + " WHERE in_stock = TRUE")
+                .map(ReactiveProductRepository::toSummary)
+                .all();
+    }
+
+    public Flux<ProductSummaryDTO> findSummariesByCategoryInStock(String category) {
+        return databaseClient.sql(SUMMARY_SELECT + " WHERE category = :category AND in_stock = TRUE")
+                .bind("category", category)
+                .map(ReactiveProductRepository::toSummary)
+                .all();
+    }
+
+    public Flux<ProductSummaryDTO> findSummariesByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(SUMMARY_SELECT + " WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveProductRepository::toSummary)
+                .all();
+    }
+
+    // Todos os produtos com todos os campos, em ordem de id
+    public Flux<ProductDTO> streamAll() {
+        return databaseClient.sql(PRODUCT_SELECT + " ORDER BY id")
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    public Mono<ProductDTO> findById(Long id) {
+        return databaseClient.sql(PRODUCT_SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    // Data da última alteração do produto, para ETag e Last-Modified
+    public Mono<Instant> findLastModified(Long id) {
+        return databaseClient.sql("SELECT updated_at FROM products WHERE id = :id AND updated_at IS NOT NULL")
+                .bind("id", id)
+                .map(row -> row.get("updated_at", LocalDateTime.class)
+                        .atZone(ZoneId.systemDefault()).toInstant())
+                .one();
+    }
+
+    /**
+     * Página de produtos em estoque ordenada por uma propriedade do produto
+     *
+     * @throws IllegalArgumentException se sortBy não é uma propriedade ordenável
+     */
+    public Mono<Page<ProductSummaryDTO>> findSummariesInStock(int page, int size, String sortBy, boolean descending) {
+        if (!SORT_COLUMNS.containsKey(sortBy)) {
+            throw new IllegalArgumentException("Propriedade de ordenação inválida: " + sortBy);
+        }
+        Sort sort = descending ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        return findPage(new Filter().inStock(true), PageRequest.of(page, size, sort));
+    }
+
+    // Página de produtos com os filtros informados, ordenada por nome
+    public Mono<Page<ProductSummaryDTO>> findSummaries(String category, Boolean inStock, BigDecimal minPrice,
+                                                       BigDecimal maxPrice, String name, int page, int size) {
+        Filter filter = new Filter()
+                .category(category)
+                .inStock(inStock)
+                .priceRange(minPrice, maxPrice)
+                .nameContains(name);
+        return findPage(filter, PageRequest.of(page, size, Sort.by("name")));
+    }
+
+    // Dos IDs informados, os que atendem aos filtros (sem ordem definida). Uma
+    // consulta por bloco de até idChunkSize IDs, uma depois da outra
+    public Flux<Long> findIdsIn(Collection<Long> ids, String category, Boolean inStock,
+                                BigDecimal minPrice, BigDecimal maxPrice) {
+        List<Long> candidates = List.copyOf(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += idChunkSize) {
+            chunks.add(candidates.subList(from, Math.min(from + idChunkSize, candidates.size())));
+        }
+        return Flux.fromIterable(chunks).concatMap(chunk -> {
+            Filter filter = new Filter()
+                    .category(category)
+                    .inStock(inStock)
+                    .priceRange(minPrice, maxPrice)
+                    .idIn(chunk);
+            return filter.bindTo(databaseClient.sql("SELECT id FROM products" + filter.where()))
+                    .map(row -> row.get("id", Long.class))
+                    .all();
+        });
+    }
+
+    private Mono<Page<ProductSummaryDTO>> findPage(Filter filter, Pageable pageable) {
+        String where = filter.where();
+        String orderBy = pageable.getSort().stream()
+                .map(order -> SORT_COLUMNS.get(order.getProperty()) + (order.isDescending() ? " DESC" : " ASC"))
+                .collect(Collectors.joining(", "));
+
+        Mono<List<ProductSummaryDTO>> content = filter
+                .bindTo(databaseClient.sql(SUMMARY_SELECT + where + " ORDER BY " + orderBy + ", id LIMIT :limit OFFSET :offset"))
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveProductRepository::toSummary)
+                .all()
+                .collectList();
+        Mono<Long> total = filter.bindTo(databaseClient.sql("SELECT COUNT(*) FROM products" + where))
+                .map(row -> row.get(0, Long.class))
+                .one();
+
+        return Mono.zip(content, total)
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    private static ProductSummaryDTO toSummary(Readable row) {
+        return new ProductSummaryDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("price", BigDecimal.class),
+                row.get("original_price", BigDecimal.class),
+                row.get("image", String.class),
+                row.get("category", String.class),
+                row.get("rating", Double.class),
+                row.get("in_stock", Boolean.class));
+    }
+
+    private static ProductDTO toProduct(Readable row) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(row.get("id", Long.class));
+        dto.setName(row.get("name", String.class));
+        dto.setPrice(row.get("price", BigDecimal.class));
+        dto.setOriginalPrice(row.get("original_price", BigDecimal.class));
+        dto.setImage(row.get("image", String.class));
+        dto.setCategory(row.get("category", String.class));
+        dto.setRating(row.get("rating", Double.class));
+        dto.setInStock(row.get("in_stock", Boolean.class));
+        dto.setDescription(row.get("description", String.class));
+        dto.setStockQuantity(row.get("stock_quantity", Integer.class));
+        dto.setVersion(row.get("version", Long.class));
+        return dto;
+    }
+
+    /**
+     * Filtros opcionais da busca: só os informados entram no WHERE, como em
+     * ProductSpecifications.withFilters
+     */
+    private static final class Filter {
+
+        private final List<String> conditions = new ArrayList<>();
+        private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+        Filter category(String category) {
+            return add(category, "category = :category", "category", category);
+        }
+
+        Filter inStock(Boolean inStock) {
+            return add(inStock, "in_stock = :inStock", "inStock", inStock);
+        }
+
+        Filter priceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+            add(minPrice, "price >= :minPrice", "minPrice", minPrice);
+            return add(maxPrice, "price <= :maxPrice", "maxPrice", maxPrice);
+        }
+
+        Filter nameContains(String name) {
+            String pattern = name != null ? "%" + name.toLowerCase(Locale.ROOT) + "%" : null;
+            return add(name, "LOWER(name) LIKE :name", "name", pattern);
+        }
+
+        Filter idIn(Collection<Long> ids) {
+            return add(ids, "id IN (:ids)", "ids", ids);
+        }
+
+        private Filter add(Object value, String condition, String parameter, Object bound) {
+            if (value != null) {
+                conditions.add(condition);
+                parameters.put(parameter, bound);
+            }
+            return this;
+        }
+
+        String where() {
+            return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        }
+
+        DatabaseClient.GenericExecuteSpec bindTo(DatabaseClient.GenericExecuteSpec spec) {
+            for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+                spec = spec.bind(parameter.getKey(), parameter.getValue());
+            }
+            return spec;
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package com.project.ecommerce.search;
+
+import com.project.ecommerce.entity.Product;
+import com.project.ecommerce.repository.ProductRepository;
+import com.project.ecommerce.tracing.Tracer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.project.ecommerce.tracing.TraceCategory.STARTUP;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+
+/**
+ * Motor de consulta colunar em memória para a busca com filtros de catálogos
+ * grandes (catalog.columnar.enabled). Cada produto ocupa uma linha nas colunas
+ * primitivas: preço em centavos (long), categoria codificada por dicionário e
+ * versão; inStock é um bitmap. Há um bitmap Roaring por categoria, um índice de
+ * preço ordenado (centavos -> linhas) e a ordem por nome, de modo que uma
+ * combinação de filtros vira interseções de bitmaps e varreduras de faixa.
+ *
+ * Como o ProductSearchIndex, é reconstruído ao subir a aplicação e mantido
+ * de forma incremental pelo ProductService após o commit de cada escrita; a
+ * versão do produto descarta atualizações que chegam fora de ordem. A ordem
+ * por nome usa String.compareTo, igual à collation padrão do H2.
+ */
+@Component
+public class ProductColumnStore {
+
+    // Com menos de 1/8 das linhas no resultado, ordenar só o resultado sai mais
+    // barato que percorrer a ordem por nome
+    private static final int NAME_WALK_RATIO = 8;
+
+    // Entidades lidas entre cada limpeza do contexto de persistência na reconstrução
+    private static final int REBUILD_CHUNK_SIZE = 500;
+
+    @Value("${catalog.columnar.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Columns columns = new Columns();
+    // Escritas recebidas durante uma reconstrução, reaplicadas antes da troca
+    private List<Consumer<Columns>> pendingWrites;
+    private volatile boolean ready;
+
+    /**
+     * Reconstruir as colunas a partir do banco, sem bloquear as consultas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            // Transação de escrita para ler do primário: um snapshot da réplica atrasada
+            // perderia escritas confirmadas antes do início da reconstrução. As entidades
+            // já vêm somente leitura pelo hint de streamAll
+            Columns rebuilt = new Columns();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Product> products = productRepository.streamAll()) {
+                    Iterator<Product> iterator = products.iterator();
+                    int count = 0;
+                    while (iterator.hasNext()) {
+                        rebuilt.put(iterator.next());
+                        if (++count % REBUILD_CHUNK_SIZE == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                }
+            });
+
+            lock.writeLock().lock();
+            try {
+                for (Consumer<Columns> write : pendingWrites) {
+                    write.accept(rebuilt);
+                }
+                pendingWrites = null;
+                columns = rebuilt;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Tracer.event(STARTUP, INFO, "columnar.rebuilt", "rows", rebuilt.rowById.size(),
+                    "categories", rebuilt.categoryDictionary.size(), "prices", rebuilt.rowsByPrice.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Gravar (ou regravar) a linha de um produto
+     */
+    public void index(Product product) {
+        if (enabled) {
+            apply(columns -> columns.put(product));
+        }
+    }
+
+    /**
+     * Atualizar só a disponibilidade, após uma baixa de estoque feita por UPDATE
+     */
+    public void updateInStock(Long id, Long version, boolean inStock) {
+        if (enabled) {
+            apply(columns -> columns.setInStock(id, versionOf(version), inStock));
+        }
+    }
+
+    /**
+     * Remover a linha de um produto
+     */
+    public void remove(Long id) {
+        if (enabled) {
+            apply(columns -> columns.remove(id));
+        }
+    }
+
+    private void apply(Consumer<Columns> write) {
+        lock.writeLock().lock();
+        try {
+            write.accept(columns);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs da página pedida, ordenados por nome como na busca pelo banco.
+     * Retorna null se o motor está desligado ou ainda não foi construído.
+     */
+    public Page<Long> search(String category, Boolean inStock, BigDecimal minPrice, BigDecimal maxPrice,
+                             Pageable pageable) {
+        if (!ready) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap rows = columns.matching(category, inStock, minPrice, maxPrice);
+            long total = rows.getLongCardinality();
+            if (pageable.getOffset() >= total) {
+                return new PageImpl<>(List.of(), pageable, total);
+            }
+
+            int from = (int) pageable.getOffset();
+            int to = (int) Math.min(from + (long) pageable.getPageSize(), total);
+            int[] pageRows = total * NAME_WALK_RATIO >= columns.live.getLongCardinality()
+                    ? columns.walkByName(rows, from, to)
+                    : columns.sortByName(rows, from, to);
+
+            List<Long> ids = new ArrayList<>(pageRows.length);
+            for (int row : pageRows) {
+                ids.add(columns.ids[row]);
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Manter, na ordem recebida, só os IDs que passam nos filtros. Retorna null
+     * se o motor está desligado ou ainda não foi construído.
+     */
+    public long[] filter(long[] ids, String category, Boolean inStock, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!ready) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap rows = columns.matching(category, inStock, minPrice, maxPrice);
+            long[] kept = new long[ids.length];
+            int count = 0;
+            for (long id : ids) {
+                Integer row = columns.rowById.get(id);
+                if (row != null && rows.contains(row)) {
+                    kept[count++] = id;
+                }
+            }
+            return Arrays.copyOf(kept, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long versionOf(Long version) {
+        return version != null ? version : 0;
+    }
+
+    // Centavos arredondados para dentro da faixa pedida, limitados ao intervalo de long
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        BigDecimal cents = price.movePointRight(2).setScale(0, rounding);
+        if (cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (cents.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+
+    /**
+     * Colunas e índices; todo acesso acontece com o lock do ProductColumnStore
+     */
+    private static final class Columns {
+
+        private final Map<Long, Integer> rowById = new HashMap<>();
+        private long[] ids = new long[1024];
+        private long[] versions = new long[1024];
+        private long[] priceCents = new long[1024];
+        private int[] categoryCodes = new int[1024];
+        private String[] names = new String[1024];
+        private int rowCount;
+
+        // Linhas de produtos removidos, reaproveitadas pelos próximos
+        private int[] freeRows = new int[16];
+        private int freeCount;
+
+        private final RoaringBitmap live = new RoaringBitmap();
+        private final RoaringBitmap inStock = new RoaringBitmap();
+        private final Map<String, Integer> categoryDictionary = new HashMap<>();
+        private final List<RoaringBitmap> rowsByCategory = new ArrayList<>();
+        private final TreeMap<Long, RoaringBitmap> rowsByPrice = new TreeMap<>();
+        private final Comparator<Integer> nameOrder = (a, b) -> {
+            int byName = names[a].compareTo(names[b]);
+            return byName != 0 ? byName : Long.compare(ids[a], ids[b]);
+        };
+        private final TreeSet<Integer> rowsByName = new TreeSet<>(nameOrder);
+
+        void put(Product product) {
+            long id = product.getId();
+            long version = versionOf(product.getVersion());
+            Integer row = rowById.get(id);
+            if (row != null) {
+                if (versions[row] > version) {
+                    return;
+                }
+                unlink(row);
+            } else {
+                row = allocate(id);
+            }
+
+            versions[row] = version;
+            names[row] = product.getName();
+            priceCents[row] = toCents(product.getPrice(), RoundingMode.HALF_UP);
+            categoryCodes[row] = categoryDictionary.computeIfAbsent(product.getCategory(), category -> {
+                rowsByCategory.add(new RoaringBitmap());
+                return rowsByCategory.size() - 1;
+            });
+            link(row, Boolean.TRUE.equals(product.getInStock()));
+        }
+
+        void setInStock(long id, long version, boolean available) {
+            Integer row = rowById.get(id);
+            if (row == null || versions[row] > version) {
+                return;
+            }
+            versions[row] = version;
+            if (available) {
+                inStock.add(row);
+            } else {
+                inStock.remove(row);
+            }
+        }
+
+        void remove(long id) {
+            Integer row = rowById.remove(id);
+            if (row == null) {
+                return;
+            }
+            unlink(row);
+            live.remove(row);
+            names[row] = null;
+            if (freeCount == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+            }
+            freeRows[freeCount++] = row;
+        }
+
+        private int allocate(long id) {
+            int row;
+            if (freeCount > 0) {
+                row = freeRows[--freeCount];
+            } else {
+                if (rowCount == ids.length) {
+                    int capacity = rowCount * 2;
+                    ids = Arrays.copyOf(ids, capacity);
+                    versions = Arrays.copyOf(versions, capacity);
+                    priceCents = Arrays.copyOf(priceCents, capacity);
+                    categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+                    names = Arrays.copyOf(names, capacity);
+                }
+                row = rowCount++;
+            }
+            ids[row] = id;
+            rowById.put(id, row);
+            live.add(row);
+            return row;
+        }
+
+        // Tirar a linha dos índices antes de alterar as colunas (o TreeSet ordena pelo nome atual)
+        private void unlink(int row) {
+            rowsByName.remove(row);
+            rowsByCategory.get(categoryCodes[row]).remove(row);
+            RoaringBitmap samePrice = rowsByPrice.get(priceCents[row]);
+            samePrice.remove(row);
+            if (samePrice.isEmpty()) {
+                rowsByPrice.remove(priceCents[row]);
+            }
+            inStock.remove(row);
+        }
+
+        private void link(int row, boolean available) {
+            rowsByName.add(row);
+            rowsByCategory.get(categoryCodes[row]).add(row);
+            rowsByPrice.computeIfAbsent(priceCents[row], cents -> new RoaringBitmap()).add(row);
+            if (available) {
+                inStock.add(row);
+            }
+        }
+
+        // Linhas que passam em todos os filtros informados (novo bitmap, do chamador)
+        RoaringBitmap matching(String category, Boolean available, BigDecimal minPrice, BigDecimal maxPrice) {
+            RoaringBitmap rows;
+            if (category != null) {
+                Integer code = categoryDictionary.get(category);
+                if (code == null) {
+                    return new RoaringBitmap();
+                }
+                rows = rowsByCategory.get(code).clone();
+            } else {
+                rows = null;
+            }
+
+            if (available != null) {
+                if (rows == null) {
+                    rows = available ? inStock.clone() : RoaringBitmap.andNot(live, inStock);
+                } else if (available) {
+                    rows.and(inStock);
+                } else {
+                    rows.andNot(inStock);
+                }
+            }
+
+            if (minPrice != null || maxPrice != null) {
+                long min = minPrice != null ? toCents(minPrice, RoundingMode.CEILING) : Long.MIN_VALUE;
+                long max = maxPrice != null ? toCents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+                if (min > max) {
+                    return new RoaringBitmap();
+                }
+                rows = rows == null ? priceRange(min, max) : scanPrice(rows, min, max);
+            }
+
+            return rows != null ? rows : live.clone();
+        }
+
+        // Faixa pelo índice ordenado de preço: união dos bitmaps de cada valor
+        private RoaringBitmap priceRange(long min, long max) {
+            NavigableMap<Long, RoaringBitmap> range = rowsByPrice.subMap(min, true, max, true);
+            return range.isEmpty() ? new RoaringBitmap() : FastAggregation.or(range.values().iterator());
+        }
+
+        // Com o conjunto já reduzido por outros filtros, ler a coluna de preço sai mais barato
+        private RoaringBitmap scanPrice(RoaringBitmap rows, long min, long max) {
+            RoaringBitmap result = new RoaringBitmap();
+            IntIterator iterator = rows.getIntIterator();
+            while (iterator.hasNext()) {
+                int row = iterator.next();
+                long cents = priceCents[row];
+                if (cents >= min && cents <= max) {
+                    result.add(row);
+                }
+            }
+            return result;
+        }
+
+        // Resultado denso: percorrer a ordem por nome até completar a página
+        int[] walkByName(RoaringBitmap rows, int from, int to) {
+            int[] page = new int[to - from];
+            int position = 0;
+            for (int row : rowsByName) {
+                if (rows.contains(row)) {
+                    if (position >= from) {
+                        page[position - from] = row;
+                    }
+                    if (++position == to) {
+                        break;
+                    }
+                }
+            }
+            return page;
+        }
+
+        // Resultado esparso: manter só as "to" primeiras por nome num heap limitado
+        int[] sortByName(RoaringBitmap rows, int from, int to) {
+            PriorityQueue<Integer> first = new PriorityQueue<>(to, nameOrder.reversed());
+            IntIterator iterator = rows.getIntIterator();
+            while (iterator.hasNext()) {
+                int row = iterator.next();
+                if (first.size() < to) {
+                    first.add(row);
+                } else if (nameOrder.compare(row, first.peek()) < 0) {
+                    first.poll();
+                    first.add(row);
+                }
+            }
+
+            int[] ordered = new int[first.size()];
+            for (int i = ordered.length - 1; i >= 0; i--) {
+                ordered[i] = first.poll();
+            }
+            return Arrays.copyOfRange(ordered, from, ordered.length);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.project.ecommerce.search;
+
+import com.project.ecommerce.entity.Product;
+import com.project.ecommerce.repository.ProductRepository;
+import com.project.ecommerce.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.project.ecommerce.tracing.TraceCategory.STARTUP;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+
+/**
+ * Índice invertido em memória sobre nome, categoria e descrição dos produtos,
+ * com ranqueamento BM25. Cada termo aponta para uma lista de postings com IDs
+ * primitivos ordenados, frequência do termo (ponderada por campo) e tamanho do
+ * documento.
+ *
+ * Reconstruído ao subir a aplicação e mantido de forma incremental pelo
+ * ProductService após o commit de cada escrita. Leituras concorrentes, escritas
+ * exclusivas (ReadWriteLock). As escritas que chegam durante um rebuild são
+ * anotadas e reaplicadas sobre o snapshot, que pode ser mais antigo que elas.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // Limite de termos expandidos pelo prefixo do último token da consulta
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final long[] NO_IDS = new long[0];
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final HashMap<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+    private volatile boolean ready;
+
+    // Escritas recebidas durante um rebuild, por ID (null = remoção); só existe durante o rebuild
+    private Map<Long, Map<String, Float>> pendingChanges;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reconstruir o índice a partir do banco
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            setPendingChanges(new HashMap<>());
+            List<Product> products;
+            try {
+                // Transação de escrita para ler do primário, não da réplica atrasada
+                products = transactionTemplate.execute(status -> productRepository.findAll());
+            } catch (RuntimeException e) {
+                setPendingChanges(null);
+                throw e;
+            }
+
+            int replayed;
+            int termCount;
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                documents.clear();
+                totalLength = 0;
+                for (Product product : products) {
+                    add(product.getId(), analyze(product));
+                }
+
+                // O snapshot foi lido antes do lock: escritas posteriores a ele prevalecem
+                replayed = pendingChanges.size();
+                for (Map.Entry<Long, Map<String, Float>> change : pendingChanges.entrySet()) {
+                    removeDocument(change.getKey());
+                    if (change.getValue() != null) {
+                        add(change.getKey(), change.getValue());
+                    }
+                }
+                pendingChanges = null;
+                termCount = postings.size();
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Tracer.event(STARTUP, INFO, "search.index.rebuilt", "documents", products.size(), "terms", termCount,
+                    "replayed", replayed);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Indexar (ou reindexar) um produto
+     */
+    public void index(Product product) {
+        Map<String, Float> frequencies = analyze(product);
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            add(product.getId(), frequencies);
+            if (pendingChanges != null) {
+                pendingChanges.put(product.getId(), frequencies);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remover um produto do índice
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            if (pendingChanges != null) {
+                pendingChanges.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void setPendingChanges(Map<Long, Map<String, Float>> changes) {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Buscar produtos que contenham todos os termos da consulta (o último
+     * também por prefixo), ordenados por relevância. Retorna null se o índice
+     * ainda não foi construído ou a consulta não tem termos indexáveis.
+     */
+    public long[] search(String query) {
+        List<String> tokens = TextAnalyzer.foldedTokens(query);
+        if (!ready || tokens.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return NO_IDS;
+            }
+            double averageLength = totalLength / documentCount;
+
+            ScoredIds result = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                Set<String> terms = new LinkedHashSet<>();
+                terms.add(TextAnalyzer.stem(token));
+                if (i == tokens.size() - 1) {
+                    for (String term : postings.subMap(token, true, token + Character.MAX_VALUE, false).keySet()) {
+                        if (terms.size() > MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        terms.add(term);
+                    }
+                }
+
+                ScoredIds tokenScores = null;
+                for (String term : terms) {
+                    PostingList list = postings.get(term);
+                    if (list != null) {
+                        ScoredIds termScores = list.score(documentCount, averageLength);
+                        tokenScores = tokenScores == null ? termScores : tokenScores.union(termScores);
+                    }
+                }
+
+                if (tokenScores == null) {
+                    return NO_IDS;
+                }
+                result = result == null ? tokenScores : result.intersect(tokenScores);
+                if (result.size == 0) {
+                    return NO_IDS;
+                }
+            }
+
+            return result.rankedIds();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Float> analyze(Product product) {
+        Map<String, Float> frequencies = new HashMap<>();
+        accumulate(frequencies, product.getName(), NAME_WEIGHT);
+        accumulate(frequencies, product.getCategory(), CATEGORY_WEIGHT);
+        accumulate(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+        return frequencies;
+    }
+
+    private static void accumulate(Map<String, Float> frequencies, String text, float weight) {
+        for (String term : TextAnalyzer.terms(text)) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+    }
+
+    // Chamado com o write lock
+    private void add(long id, Map<String, Float> frequencies) {
+        float length = 0;
+        for (float frequency : frequencies.values()) {
+            length += frequency;
+        }
+
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new PostingList())
+                    .put(id, entry.getValue(), length);
+        }
+
+        documents.put(id, new Document(frequencies.keySet().toArray(new String[0]), length));
+        totalLength += length;
+    }
+
+    // Chamado com o write lock
+    private void removeDocument(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+
+        for (String term : document.terms) {
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    private static final class Document {
+        private final String[] terms;
+        private final float length;
+
+        private Document(String[] terms, float length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Postings de um termo, ordenados por ID para busca binária e merge
+     */
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private float[] frequencies = new float[4];
+        private float[] lengths = new float[4];
+        private int size;
+
+        void put(long id, float frequency, float length) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                index = -(index + 1);
+                if (size == ids.length) {
+                    int capacity = size * 2;
+                    ids = Arrays.copyOf(ids, capacity);
+                    frequencies = Arrays.copyOf(frequencies, capacity);
+                    lengths = Arrays.copyOf(lengths, capacity);
+                }
+                System.arraycopy(ids, index, ids, index + 1, size - index);
+                System.arraycopy(frequencies, index, frequencies, index + 1, size - index);
+                System.arraycopy(lengths, index, lengths, index + 1, size - index);
+                size++;
+            }
+            ids[index] = id;
+            frequencies[index] = frequency;
+            lengths[index] = length;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            int moved = size - index - 1;
+            System.arraycopy(ids, index + 1, ids, index, moved);
+            System.arraycopy(frequencies, index + 1, frequencies, index, moved);
+            System.arraycopy(lengths, index + 1, lengths, index, moved);
+            size--;
+            return true;
+        }
+
+        ScoredIds score(int documentCount, double averageLength) {
+            double idf = Math.log(1 + (documentCount - size + 0.5) / (size + 0.5));
+            double[] scores = new double[size];
+            for (int i = 0; i < size; i++) {
+                double tf = frequencies[i];
+                double norm = K1 * (1 - B + B * lengths[i] / averageLength);
+                scores[i] = idf * tf * (K1 + 1) / (tf + norm);
+            }
+            return new ScoredIds(Arrays.copyOf(ids, size), scores, size);
+        }
+    }
+
+    /**
+     * IDs ordenados com pontuação acumulada
+     */
+    private static final class ScoredIds {
+        private final long[] ids;
+        private final double[] scores;
+        private final int size;
+
+        private ScoredIds(long[] ids, double[] scores, int size) {
+            this.ids = ids;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        ScoredIds union(ScoredIds other) {
+            long[] mergedIds = new long[size + other.size];
+            double[] mergedScores = new double[size + other.size];
+            int i = 0, j = 0, n = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && ids[i] < other.ids[j])) {
+                    mergedIds[n] = ids[i];
+                    mergedScores[n++] = scores[i++];
+                } else if (i == size || other.ids[j] < ids[i]) {
+                    mergedIds[n] = other.ids[j];
+                    mergedScores[n++] = other.scores[j++];
+                } else {
+                    mergedIds[n] = ids[i];
+                    mergedScores[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new ScoredIds(mergedIds, mergedScores, n);
+        }
+
+        ScoredIds intersect(ScoredIds other) {
+            int capacity = Math.min(size, other.size);
+            long[] commonIds = new long[capacity];
+            double[] commonScores = new double[capacity];
+            int i = 0, j = 0, n = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (other.ids[j] < ids[i]) {
+                    j++;
+                } else {
+                    commonIds[n] = ids[i];
+                    commonScores[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new ScoredIds(commonIds, commonScores, n);
+        }
+
+        long[] rankedIds() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int byScore = Double.compare(scores[b], scores[a]);
+                return byScore != 0 ? byScore : Long.compare(ids[a], ids[b]);
+            });
+
+            long[] ranked = new long[size];
+            for (int i = 0; i < size; i++) {
+                ranked[i] = ids[order[i]];
+            }
+            return ranked;
+        }
+    }
+}
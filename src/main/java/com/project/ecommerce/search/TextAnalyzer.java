@@ -0,0 +1,97 @@
+package com.project.ecommerce.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenização usada pelo índice de busca: remove acentos ("Calçados" vira
+ * "calcados"), separa por caracteres não alfanuméricos, descarta stopwords do
+ * português e reduz plurais comuns ao singular ("botões" e "botão" geram o
+ * mesmo termo). O mesmo tratamento é aplicado aos documentos e às consultas.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "no", "na", "nos", "nas",
+            "um", "uma", "uns", "umas", "ao", "aos", "para", "pra", "por", "pelo", "pela", "com", "sem",
+            "que", "se", "ou", "mais", "muito", "the", "and", "of", "for", "with");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Tokens sem acento, em minúsculas e sem stopwords, ainda sem redução de plural
+     */
+    public static List<String> foldedTokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder current = new StringBuilder(16);
+
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (current.length() > 0) {
+                String token = current.toString();
+                current.setLength(0);
+                if ((token.length() > 1 || Character.isDigit(token.charAt(0))) && !STOPWORDS.contains(token)) {
+                    tokens.add(token);
+                }
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Redução leve de plural para o singular (sem acentos)
+     */
+    public static String stem(String token) {
+        int length = token.length();
+        if (length <= 3 || !token.endsWith("s") || Character.isDigit(token.charAt(0))) {
+            return token;
+        }
+
+        if (token.endsWith("oes") || token.endsWith("aes")) {
+            return token.substring(0, length - 3) + "ao";
+        }
+        if (token.endsWith("ais")) {
+            return token.substring(0, length - 3) + "al";
+        }
+        if (token.endsWith("eis")) {
+            return token.substring(0, length - 3) + "el";
+        }
+        if (token.endsWith("ois")) {
+            return token.substring(0, length - 3) + "ol";
+        }
+        if (token.endsWith("ns")) {
+            return token.substring(0, length - 2) + "m";
+        }
+        if (token.endsWith("res") || token.endsWith("zes") || token.endsWith("ses")) {
+            return token.substring(0, length - 2);
+        }
+        if (token.endsWith("ss") || token.endsWith("us") || token.endsWith("is")) {
+            return token;
+        }
+        return token.substring(0, length - 1);
+    }
+
+    /**
+     * Termos indexáveis de um texto: tokens normalizados e reduzidos
+     */
+    public static List<String> terms(String text) {
+        List<String> tokens = foldedTokens(text);
+        tokens.replaceAll(TextAnalyzer::stem);
+        return tokens;
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.ecommerce.security;
 
+import com.project.ecommerce.tracing.Tracer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +17,13 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collections;
 
+import static com.project.ecommerce.tracing.TraceCategory.JWT;
+import static com.project.ecommerce.tracing.TraceCategory.REQUEST;
+import static com.project.ecommerce.tracing.TraceCategory.SECURITY;
+import static com.project.ecommerce.tracing.TraceLevel.DEBUG;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+import static com.project.ecommerce.tracing.TraceLevel.WARN;
+
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -27,30 +35,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String method = request.getMethod();
-        String uri = request.getRequestURI();
-
-        System.out.println("\n🔍 === PROCESSANDO REQUISIÇÃO ===");
-        System.out.println("📋 Método: " + method);
-        System.out.println("🌐 URI: " + uri);
-        System.out.println("🏠 Origin: " + request.getHeader("Origin"));
+        Tracer.event(REQUEST, DEBUG, "request.start",
+                "method", request.getMethod(), "uri", request.getRequestURI(), "origin", request.getHeader("Origin"));
 
         try {
             String token = extractTokenFromRequest(request);
 
             if (token != null) {
-                System.out.println("🎫 Token encontrado, processando autenticação...");
                 authenticateUser(token, request);
             } else {
-                System.out.println("❌ Nenhum token JWT encontrado no header Authorization");
+                Tracer.event(SECURITY, DEBUG, "jwt.absent", "uri", request.getRequestURI());
             }
 
         } catch (Exception e) {
-            System.err.println("❌ ERRO durante autenticação JWT: " + e.getMessage());
+            Tracer.event(SECURITY, WARN, "jwt.authentication.error", "error", e.getMessage());
             SecurityContextHolder.clearContext();
         }
 
-        System.out.println("================================\n");
         filterChain.doFilter(request, response);
     }
 
@@ -60,9 +61,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private String extractTokenFromRequest(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
 
-        System.out.println("🔑 Authorization Header: " + (authHeader != null ?
-                "Bearer " + authHeader.substring(7, Math.min(authHeader.length(), 27)) + "..." : "null"));
-
         if (StringUtils.hasText(authHeader) && authHeader.startsWith("Bearer ")) {
             return authHeader.substring(7);
         }
@@ -75,36 +73,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private void authenticateUser(String token, HttpServletRequest request) {
         try {
-            System.out.println("🔍 Iniciando validação do token...");
-
-            // Debug do token para identificar problemas
-            if (System.getProperty("jwt.debug", "true").equals("true")) {
+            // Debug do token para identificar problemas (só com JWT em DEBUG)
+            if (Tracer.isEnabled(JWT, DEBUG)) {
                 jwtUtil.debugToken(token);
             }
 
             // Validar token primeiro
             if (!jwtUtil.validateToken(token)) {
-                System.err.println("❌ Token JWT inválido ou expirado");
+                Tracer.event(SECURITY, INFO, "jwt.rejected", "uri", request.getRequestURI());
                 return;
             }
 
-            System.out.println("✅ Token válido, extraindo informações...");
-
-            // Extrair informações do usuário
-            String email = jwtUtil.getEmailFromToken(token);
-            String role = jwtUtil.getRoleFromToken(token);
-
-            System.out.println("📧 Email extraído: " + email);
-            System.out.println("👤 Role extraída: " + role);
+            // Extrair informações do usuário (servidas pelo cache de claims verificadas)
+            VerifiedClaims claims = jwtUtil.getVerifiedClaims(token);
+            String email = claims.getSubject();
+            String role = claims.getRole();
 
             if (email == null || role == null) {
-                System.err.println("❌ Email ou role não encontrados no token");
+                Tracer.event(SECURITY, WARN, "jwt.claims.missing", "email", email, "role", role);
                 return;
             }
 
             // Verificar se já existe autenticação no contexto
             if (SecurityContextHolder.getContext().getAuthentication() != null) {
-                System.out.println("ℹ️  Usuário já autenticado no contexto");
+                Tracer.event(SECURITY, DEBUG, "authentication.present", "email", email);
                 return;
             }
 
@@ -123,15 +115,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Definir no contexto de segurança.
             SecurityContextHolder.getContext().setAuthentication(authToken);
 
-            System.out.println("🎉 SUCESSO! Usuário autenticado:");
-            System.out.println("   📧 Email: " + email);
-            System.out.println("   👤 Role: " + roleWithPrefix);
-            System.out.println("   🔐 Authorities: " + authToken.getAuthorities());
+            Tracer.event(SECURITY, DEBUG, "authentication.success", "email", email, "role", roleWithPrefix);
 
         } catch (Exception e) {
-            System.err.println("❌ ERRO durante processamento do token:");
-            System.err.println("   Tipo: " + e.getClass().getSimpleName());
-            System.err.println("   Mensagem: " + e.getMessage());
+            Tracer.event(SECURITY, WARN, "jwt.processing.error",
+                    "type", e.getClass().getSimpleName(), "error", e.getMessage());
 
             // Limpar contexto em caso de erro.
             SecurityContextHolder.clearContext();
@@ -164,7 +152,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         boolean shouldSkip = isPublicEndpoint || isOptionsRequest;
 
         if (shouldSkip) {
-            System.out.println("⏭️  PULANDO filtro JWT para: " + method + " " + path);
+            Tracer.event(REQUEST, DEBUG, "jwt.filter.skipped", "method", method, "uri", path);
         }
 
         return shouldSkip;
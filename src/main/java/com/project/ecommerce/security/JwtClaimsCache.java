@@ -0,0 +1,103 @@
+package com.project.ecommerce.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache de claims já verificadas, indexado pelo digest SHA-256 do token.
+ * Cada entrada expira junto com o "exp" do próprio token.
+ */
+@Component
+public class JwtClaimsCache {
+
+    // Protótipo sem estado, clonado a cada digest: um MessageDigest por thread (ThreadLocal)
+    // não seria reaproveitado com virtual threads, criadas uma por requisição
+    private static final MessageDigest SHA_256 = newSha256();
+
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<String, VerifiedClaims> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedClaims claims, long currentTime) {
+                        long remainingMillis = claims.getExpirationMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retornar as claims do token, verificando a assinatura apenas no primeiro acesso
+     */
+    public VerifiedClaims get(String token, Function<String, VerifiedClaims> verifier) {
+        return cache.get(digest(token), key -> verifier.apply(token));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    // Aplica antes os despejos pendentes, que o Caffeine executa de forma assíncrona
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        byte[] hash = sha256().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return (MessageDigest) SHA_256.clone();
+        } catch (CloneNotSupportedException e) {
+            return newSha256();
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.project.ecommerce.security;
+
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verificador especializado para os tokens HS512 emitidos por {@link JwtUtil#generateToken}.
+ * Decodifica o base64url em buffers do tamanho do token, confere a assinatura com um
+ * clone do Mac já inicializado para a chave e extrai só as claims usadas pela aplicação
+ * (sub, role, iss, iat, exp) com um scanner mínimo. Qualquer token fora desse formato retorna null para que
+ * o chamador use o caminho completo do jjwt.
+ */
+@Component
+public class JwtFastVerifier {
+
+    private static final int HS512_SIGNATURE_LENGTH = 64;
+
+    private static final long MAX_EPOCH_SECONDS = Long.MAX_VALUE / 1000L;
+
+    // Marcador de header não suportado (comparado por referência)
+    private static final String NOT_SUPPORTED = new String("unsupported");
+
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    // Chaves vivas são poucas (a ativa e as anteriores ainda aceitas); acima disso o mapa recomeça
+    private static final int MAX_MAC_PROTOTYPES = 16;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    // Mac inicializado por chave. Cada verificação usa um clone, que copia o estado já
+    // preparado com a chave sem refazer o init; um Mac por thread (ThreadLocal) não seria
+    // reaproveitado com virtual threads, criadas uma por requisição
+    private final Map<SecretKey, Mac> macPrototypes = new ConcurrentHashMap<>();
+
+    /**
+     * Verificar o token pelo caminho rápido.
+     *
+     * @return as claims verificadas, ou null se o token exigir o parser completo
+     * @throws SignatureException se o token estiver no formato esperado mas a assinatura não conferir
+     */
+    public VerifiedClaims verify(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (firstDot <= 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return null;
+        }
+
+        Scratch scratch = new Scratch();
+
+        // Header: apenas {"alg":"HS512"} com "kid" opcional
+        int headerLength = decode(token, 0, firstDot, scratch.ensureDecoded(firstDot));
+        if (headerLength < 0) {
+            return null;
+        }
+        String kid = scanHeader(scratch.decoded, headerLength);
+        if (kid == NOT_SUPPORTED) {
+            return null;
+        }
+
+        SecretKey key = keyRing.findVerificationKey(kid);
+        if (key == null) {
+            return null;
+        }
+
+        // Assinatura
+        if (token.length() - secondDot - 1 != 86
+                || decode(token, secondDot + 1, token.length(), scratch.signature) != HS512_SIGNATURE_LENGTH) {
+            return null;
+        }
+
+        byte[] signingInput = scratch.ensureInput(secondDot);
+        for (int i = 0; i < secondDot; i++) {
+            char c = token.charAt(i);
+            if (c > 127) {
+                return null;
+            }
+            signingInput[i] = (byte) c;
+        }
+
+        try {
+            Mac mac = macFor(key);
+            mac.update(signingInput, 0, secondDot);
+            mac.doFinal(scratch.expected, 0);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+
+        if (!constantTimeEquals(scratch.expected, scratch.signature)) {
+            throw new SignatureException("Assinatura JWT não confere");
+        }
+
+        // Payload
+        int payloadLength = decode(token, firstDot + 1, secondDot, scratch.ensureDecoded(secondDot - firstDot));
+        if (payloadLength < 0) {
+            return null;
+        }
+
+        VerifiedClaims claims = scanPayload(scratch.decoded, payloadLength);
+
+        // Tokens expirados seguem pelo jjwt, que gera a ExpiredJwtException esperada
+        if (claims == null || claims.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+
+        return claims;
+    }
+
+    private Mac macFor(SecretKey key) throws GeneralSecurityException {
+        Mac prototype = macPrototypes.get(key);
+        if (prototype == null) {
+            prototype = Mac.getInstance("HmacSHA512");
+            prototype.init(key);
+            if (macPrototypes.size() >= MAX_MAC_PROTOTYPES) {
+                macPrototypes.clear();
+            }
+            macPrototypes.put(key, prototype);
+        }
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            // Provedor sem clone: inicializar um Mac novo
+            Mac mac = Mac.getInstance(prototype.getAlgorithm());
+            mac.init(key);
+            return mac;
+        }
+    }
+
+    private static String scanHeader(byte[] json, int length) {
+        JsonScanner scanner = new JsonScanner(json, length);
+        if (!scanner.beginObject()) {
+            return NOT_SUPPORTED;
+        }
+
+        boolean hs512 = false;
+        String kid = null;
+
+        while (scanner.nextField()) {
+            if (scanner.fieldIs("alg")) {
+                String alg = scanner.readString();
+                if (alg == null || !alg.equals("HS512")) {
+                    return NOT_SUPPORTED;
+                }
+                hs512 = true;
+            } else if (scanner.fieldIs("kid")) {
+                kid = scanner.readString();
+                if (kid == null) {
+                    return NOT_SUPPORTED;
+                }
+            } else {
+                // "typ", "zip", "crit" etc. ficam com o jjwt
+                return NOT_SUPPORTED;
+            }
+        }
+
+        return hs512 && scanner.endedCleanly() ? kid : NOT_SUPPORTED;
+    }
+
+    private static VerifiedClaims scanPayload(byte[] json, int length) {
+        JsonScanner scanner = new JsonScanner(json, length);
+        if (!scanner.beginObject()) {
+            return null;
+        }
+
+        String subject = null;
+        String role = null;
+        String issuer = null;
+        long issuedAt = 0L;
+        long expiration = -1L;
+
+        while (scanner.nextField()) {
+            if (scanner.fieldIs("sub")) {
+                subject = scanner.readString();
+                if (subject == null) {
+                    return null;
+                }
+            } else if (scanner.fieldIs("role")) {
+                role = scanner.readString();
+                if (role == null) {
+                    return null;
+                }
+            } else if (scanner.fieldIs("iss")) {
+                issuer = scanner.readString();
+                if (issuer == null) {
+                    return null;
+                }
+            } else if (scanner.fieldIs("iat")) {
+                issuedAt = scanner.readLong();
+                if (issuedAt < 0) {
+                    return null;
+                }
+            } else if (scanner.fieldIs("exp")) {
+                expiration = scanner.readLong();
+                if (expiration < 0) {
+                    return null;
+                }
+            } else {
+                // "nbf", "aud" e claims desconhecidas ficam com o jjwt
+                return null;
+            }
+        }
+
+        if (!scanner.endedCleanly() || subject == null || expiration < 0) {
+            return null;
+        }
+        // Segundos que estourariam ao virar milissegundos ficam com o jjwt
+        if (issuedAt > MAX_EPOCH_SECONDS || expiration > MAX_EPOCH_SECONDS) {
+            return null;
+        }
+
+        return new VerifiedClaims(subject, role, issuer, issuedAt * 1000L, expiration * 1000L);
+    }
+
+    /**
+     * Decodificar base64url (sem padding) de token[from, to) para out.
+     * Retorna o número de bytes escritos, ou -1 se a entrada for inválida ou não
+     * canônica (bits de preenchimento do último caractere diferentes de zero), para
+     * que duas grafias do mesmo token não passem pelo caminho rápido.
+     */
+    private static int decode(String token, int from, int to, byte[] out) {
+        int length = to - from;
+        if (length % 4 == 1) {
+            return -1;
+        }
+
+        int written = 0;
+        int accumulator = 0;
+        int bits = 0;
+
+        for (int i = from; i < to; i++) {
+            char c = token.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+
+            accumulator = (accumulator << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                if (written == out.length) {
+                    return -1;
+                }
+                out[written++] = (byte) (accumulator >> bits);
+            }
+        }
+
+        if ((accumulator & ((1 << bits) - 1)) != 0) {
+            return -1;
+        }
+        return written;
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b) {
+        int result = 0;
+        for (int i = 0; i < HS512_SIGNATURE_LENGTH; i++) {
+            result |= a[i] ^ b[i];
+        }
+        return result == 0;
+    }
+
+    /**
+     * Buffers de uma verificação; o de decodificação é reaproveitado entre header e payload
+     */
+    private static final class Scratch {
+        private byte[] input = new byte[0];
+        private byte[] decoded = new byte[0];
+        private final byte[] signature = new byte[HS512_SIGNATURE_LENGTH];
+        private final byte[] expected = new byte[HS512_SIGNATURE_LENGTH];
+
+        byte[] ensureInput(int length) {
+            if (input.length < length) {
+                input = new byte[length];
+            }
+            return input;
+        }
+
+        byte[] ensureDecoded(int encodedLength) {
+            int needed = encodedLength * 3 / 4 + 1;
+            if (decoded.length < needed) {
+                decoded = new byte[needed];
+            }
+            return decoded;
+        }
+    }
+
+    /**
+     * Scanner JSON mínimo: objeto plano com valores string (sem escapes) ou inteiros.
+     * Qualquer outra construção encerra a leitura como não suportada.
+     */
+    private static final class JsonScanner {
+        private final byte[] json;
+        private final int length;
+        private int pos;
+        private int fieldStart;
+        private int fieldEnd;
+        private int fieldCount;
+        private boolean failed;
+        private boolean closed;
+
+        JsonScanner(byte[] json, int length) {
+            this.json = json;
+            this.length = length;
+        }
+
+        boolean beginObject() {
+            skipWhitespace();
+            if (pos < length && json[pos] == '{') {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        boolean nextField() {
+            if (failed || closed) {
+                return false;
+            }
+            skipWhitespace();
+            if (pos < length && json[pos] == '}') {
+                pos++;
+                closed = true;
+                return false;
+            }
+            if (fieldCount > 0) {
+                if (pos >= length || json[pos] != ',') {
+                    failed = true;
+                    return false;
+                }
+                pos++;
+                skipWhitespace();
+            }
+            if (pos >= length || json[pos] != '"') {
+                failed = true;
+                return false;
+            }
+
+            fieldStart = ++pos;
+            while (pos < length && json[pos] != '"') {
+                if (json[pos] == '\\') {
+                    failed = true;
+                    return false;
+                }
+                pos++;
+            }
+            if (pos >= length) {
+                failed = true;
+                return false;
+            }
+            fieldEnd = pos++;
+            fieldCount++;
+
+            skipWhitespace();
+            if (pos >= length || json[pos] != ':') {
+                failed = true;
+                return false;
+            }
+            pos++;
+            skipWhitespace();
+            return true;
+        }
+
+        boolean fieldIs(String name) {
+            int nameLength = fieldEnd - fieldStart;
+            if (nameLength != name.length()) {
+                return false;
+            }
+            for (int i = 0; i < nameLength; i++) {
+                if (json[fieldStart + i] != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String readString() {
+            if (pos >= length || json[pos] != '"') {
+                failed = true;
+                return null;
+            }
+            int start = ++pos;
+            while (pos < length && json[pos] != '"') {
+                if (json[pos] == '\\') {
+                    failed = true;
+                    return null;
+                }
+                pos++;
+            }
+            if (pos >= length) {
+                failed = true;
+                return null;
+            }
+            return new String(json, start, pos++ - start, StandardCharsets.UTF_8);
+        }
+
+        long readLong() {
+            long value = 0;
+            int digits = 0;
+            while (pos < length && json[pos] >= '0' && json[pos] <= '9' && digits < 18) {
+                value = value * 10 + (json[pos++] - '0');
+                digits++;
+            }
+            if (digits == 0 || (pos < length && (json[pos] == '.' || json[pos] == 'e'
+                    || json[pos] == 'E' || (json[pos] >= '0' && json[pos] <= '9')))) {
+                failed = true;
+                return -1;
+            }
+            return value;
+        }
+
+        boolean endedCleanly() {
+            if (failed || !closed) {
+                return false;
+            }
+            skipWhitespace();
+            return pos == length;
+        }
+
+        private void skipWhitespace() {
+            while (pos < length && (json[pos] == ' ' || json[pos] == '\t' || json[pos] == '\n' || json[pos] == '\r')) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.project.ecommerce.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chaveiro de assinatura JWT. Mantém as SecretKeys já derivadas, indexadas
+ * pelo header "kid", e um único JwtParser (thread-safe) que resolve a chave
+ * pelo kid. Na rotação a chave nova passa a assinar e as anteriores continuam
+ * verificando até que os tokens emitidos com elas expirem.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final String FALLBACK_SECRET =
+            "myVerySecureSecretKeyForJWTTokenGenerationThatIsAtLeast512BitsLongToEnsureSecurityAndCompatibilityWithHS512Algorithm2024";
+
+    @Value("${jwt.secret:" + FALLBACK_SECRET + "}")
+    private String secret;
+
+    // Segredos antigos aceitos apenas para verificação (separados por vírgula)
+    @Value("${jwt.previous-secrets:}")
+    private List<String> previousSecrets;
+
+    @Value("${jwt.expiration:86400}") // 24 horas em segundos
+    private int jwtExpiration;
+
+    @Autowired
+    private JwtClaimsCache claimsCache;
+
+    private final Map<String, SigningKey> keys = new ConcurrentHashMap<>();
+
+    // Serializa rotação e revogação. ReentrantLock em vez de synchronized: em
+    // Java 21 uma thread virtual bloqueada num monitor prende a thread carregadora
+    private final ReentrantLock rotationLock = new ReentrantLock();
+
+    private volatile SigningKey activeKey;
+
+    // Kid usado para tokens emitidos antes da introdução do header "kid"
+    private volatile String legacyKid;
+
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        for (String previous : previousSecrets) {
+            if (!previous.isBlank()) {
+                SigningKey key = SigningKey.of(previous.trim());
+                key.retireAt = retirementDeadline();
+                keys.put(key.kid, key);
+            }
+        }
+
+        activeKey = SigningKey.of(secret);
+        keys.put(activeKey.kid, activeKey);
+        legacyKid = activeKey.kid;
+
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolve(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Parser pré-construído; resolve a chave de verificação pelo kid do token
+     */
+    public JwtParser getParser() {
+        return parser;
+    }
+
+    public String getActiveKid() {
+        return activeKey.kid;
+    }
+
+    public SecretKey getActiveKey() {
+        return activeKey.key;
+    }
+
+    /**
+     * Rotacionar a chave de assinatura sem reiniciar a aplicação.
+     * A chave anterior continua válida para verificação por um período de expiração.
+     * A rotação vale só para esta instância e até o próximo restart: jwt.secret e
+     * jwt.previous-secrets devem ser atualizados na configuração.
+     */
+    public String rotate(String newSecret) {
+        // Sem a troca silenciosa pelo segredo padrão feita na inicialização
+        if (newSecret == null || newSecret.length() < 64) {
+            throw new IllegalArgumentException("O novo segredo deve ter pelo menos 64 caracteres");
+        }
+        SigningKey next = SigningKey.of(newSecret);
+
+        rotationLock.lock();
+        try {
+            SigningKey previous = activeKey;
+            if (next.kid.equals(previous.kid)) {
+                return previous.kid;
+            }
+
+            next.retireAt = Long.MAX_VALUE;
+            keys.put(next.kid, next);
+            previous.retireAt = retirementDeadline();
+            activeKey = next;
+
+            purgeRetiredKeys();
+            return next.kid;
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    /**
+     * Revogar imediatamente uma chave antiga. Tokens assinados por ela deixam de valer.
+     */
+    public void revoke(String kid) {
+        rotationLock.lock();
+        try {
+            if (activeKey.kid.equals(kid)) {
+                throw new IllegalStateException("Não é possível revogar a chave de assinatura ativa");
+            }
+            if (keys.remove(kid) != null) {
+                claimsCache.invalidateAll();
+            }
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    public boolean isKnown(String kid) {
+        return keys.containsKey(kid);
+    }
+
+    /**
+     * Chave de verificação para o kid informado, ou null se desconhecida ou aposentada
+     */
+    public SecretKey findVerificationKey(String kid) {
+        SigningKey signingKey = keys.get(kid != null ? kid : legacyKid);
+
+        if (signingKey == null || signingKey.retireAt < System.currentTimeMillis()) {
+            return null;
+        }
+
+        return signingKey.key;
+    }
+
+    private Key resolve(String kid) {
+        SecretKey key = findVerificationKey(kid);
+
+        if (key == null) {
+            throw new SecurityException("Chave de assinatura desconhecida ou aposentada: " + kid);
+        }
+
+        return key;
+    }
+
+    private void purgeRetiredKeys() {
+        long now = System.currentTimeMillis();
+        keys.values().removeIf(key -> key.retireAt < now);
+    }
+
+    private long retirementDeadline() {
+        return System.currentTimeMillis() + jwtExpiration * 1000L;
+    }
+
+    private static final class SigningKey {
+        private final String kid;
+        private final SecretKey key;
+        private volatile long retireAt = Long.MAX_VALUE;
+
+        private SigningKey(String kid, SecretKey key) {
+            this.kid = kid;
+            this.key = key;
+        }
+
+        static SigningKey of(String secret) {
+            // Garantir que a chave seja robusta o suficiente.
+            String finalSecret = secret.length() >= 64 ? secret : FALLBACK_SECRET;
+            byte[] keyBytes = finalSecret.getBytes(StandardCharsets.UTF_8);
+
+            return new SigningKey(kidOf(keyBytes), Keys.hmacShaKeyFor(keyBytes));
+        }
+
+        // O kid é derivado do hash da chave, nunca da própria chave
+        private static String kidOf(byte[] keyBytes) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(keyBytes);
+                return HexFormat.of().formatHex(hash, 0, 8);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 não disponível", e);
+            }
+        }
+    }
+}
@@ -1,33 +1,36 @@
 package com.project.ecommerce.security;
 
+import com.project.ecommerce.tracing.Tracer;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+
+import static com.project.ecommerce.tracing.TraceCategory.JWT;
+import static com.project.ecommerce.tracing.TraceLevel.DEBUG;
+import static com.project.ecommerce.tracing.TraceLevel.ERROR;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+import static com.project.ecommerce.tracing.TraceLevel.WARN;
 
 @Component
 public class JwtUtil {
 
-    // Chave secreta robusta — IMPORTANTE: Use uma chave de pelo menos 64 caracteres
-    @Value("${jwt.secret:myVerySecureSecretKeyForJWTTokenGenerationThatIsAtLeast512BitsLongToEnsureSecurityAndCompatibilityWithHS512Algorithm2024}")
-    private String secret;
-
     @Value("${jwt.expiration:86400}") // 24 horas em segundos
     private int jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        // Garantir que a chave seja robusta o suficiente.
-        String finalSecret = secret.length() >= 64 ? secret :
-                "myVerySecureSecretKeyForJWTTokenGenerationThatIsAtLeast512BitsLongToEnsureSecurityAndCompatibilityWithHS512Algorithm2024";
+    @Autowired
+    private JwtClaimsCache claimsCache;
 
-        return Keys.hmacShaKeyFor(finalSecret.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-    }
+    // Chaves pré-derivadas e parser reutilizável — nada é reconstruído por requisição
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Autowired
+    private JwtFastVerifier fastVerifier;
 
     /**
      * Gerar token JWT
@@ -47,11 +50,12 @@ public class JwtUtil {
         Date expiration = new Date(now.getTime() + (jwtExpiration * 1000L));
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKid())
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiration)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(keyRing.getActiveKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -59,29 +63,36 @@ public class JwtUtil {
      * Extrair email do token
      */
     public String getEmailFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return getVerifiedClaims(token).getSubject();
     }
 
     /**
      * Extrair role do token
      */
     public String getRoleFromToken(String token) {
-        return getClaimFromToken(token, claims -> claims.get("role", String.class));
+        return getVerifiedClaims(token).getRole();
     }
 
     /**
      * Extrair data de expiração
      */
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        return getVerifiedClaims(token).getExpiration();
     }
 
     /**
-     * Extrair qualquer claim do token
+     * Obter as claims verificadas do token. A assinatura é conferida apenas
+     * na primeira vez; as chamadas seguintes são servidas pelo cache até o "exp".
+     * Tokens no formato emitido por generateToken usam o verificador rápido,
+     * os demais (ou inválidos) passam pelo parser completo do jjwt.
      */
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    public VerifiedClaims getVerifiedClaims(String token) {
+        return claimsCache.get(token, this::verifyClaims);
+    }
+
+    private VerifiedClaims verifyClaims(String token) {
+        VerifiedClaims claims = fastVerifier.verify(token);
+        return claims != null ? claims : VerifiedClaims.from(getAllClaimsFromToken(token));
     }
 
     /**
@@ -89,37 +100,28 @@ public class JwtUtil {
      */
     private Claims getAllClaimsFromToken(String token) {
         try {
-            // IMPORTANTE: Use parserBuilder() para versões mais recentes
-            JwtParserBuilder parserBuilder = Jwts.parserBuilder();
-
-            // Definir a chave de assinatura
-            parserBuilder.setSigningKey(getSigningKey());
-
-            // Criar o parser
-            JwtParser parser = parserBuilder.build();
-
-            // Parsear o token
-            Jws<Claims> claimsJws = parser.parseClaimsJws(token);
+            // Parser compartilhado do chaveiro, que resolve a chave pelo kid do token
+            Jws<Claims> claimsJws = keyRing.getParser().parseClaimsJws(token);
 
             return claimsJws.getBody();
 
         } catch (ExpiredJwtException e) {
-            System.err.println("❌ Token expirado: " + e.getMessage());
+            Tracer.event(JWT, INFO, "jwt.parse.expired", "error", e.getMessage());
             throw e;
         } catch (UnsupportedJwtException e) {
-            System.err.println("❌ Token não suportado: " + e.getMessage());
+            Tracer.event(JWT, WARN, "jwt.parse.unsupported", "error", e.getMessage());
             throw e;
         } catch (MalformedJwtException e) {
-            System.err.println("❌ Token malformado: " + e.getMessage());
+            Tracer.event(JWT, WARN, "jwt.parse.malformed", "error", e.getMessage());
             throw e;
         } catch (io.jsonwebtoken.security.SecurityException e) {
-            System.err.println("❌ Assinatura inválida: " + e.getMessage());
+            Tracer.event(JWT, WARN, "jwt.parse.bad-signature", "error", e.getMessage());
             throw e;
         } catch (IllegalArgumentException e) {
-            System.err.println("❌ Token vazio: " + e.getMessage());
+            Tracer.event(JWT, WARN, "jwt.parse.empty", "error", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("❌ Erro inesperado ao processar token: " + e.getMessage());
+            Tracer.event(JWT, ERROR, "jwt.parse.error", "error", e.getMessage());
             throw new RuntimeException("Erro ao processar token JWT", e);
         }
     }
@@ -129,10 +131,9 @@ public class JwtUtil {
      */
     private Boolean isTokenExpired(String token) {
         try {
-            final Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
+            return getVerifiedClaims(token).isExpired(System.currentTimeMillis());
         } catch (Exception e) {
-            System.err.println("Erro ao verificar expiração: " + e.getMessage());
+            Tracer.event(JWT, DEBUG, "jwt.expiration.check.error", "error", e.getMessage());
             return true;
         }
     }
@@ -143,45 +144,40 @@ public class JwtUtil {
     public Boolean validateToken(String token) {
         try {
             if (token == null || token.trim().isEmpty()) {
-                System.err.println("❌ Token vazio ou nulo");
+                Tracer.event(JWT, INFO, "jwt.invalid", "reason", "empty");
                 return false;
             }
 
-            // Tentar parsear o token
-            JwtParserBuilder parserBuilder = Jwts.parserBuilder();
-            parserBuilder.setSigningKey(getSigningKey());
-            JwtParser parser = parserBuilder.build();
-
             // Se conseguir parsear sem exceção, o token é estruturalmente válido
-            parser.parseClaimsJws(token);
+            VerifiedClaims claims = getVerifiedClaims(token);
 
             // Verificar se não expirou
-            boolean expired = isTokenExpired(token);
+            boolean expired = claims.isExpired(System.currentTimeMillis());
             if (expired) {
-                System.err.println("❌ Token válido mas expirado");
+                Tracer.event(JWT, INFO, "jwt.invalid", "reason", "expired", "email", claims.getSubject());
                 return false;
             }
 
-            System.out.println("✅ Token JWT válido");
+            Tracer.event(JWT, DEBUG, "jwt.valid", "email", claims.getSubject());
             return true;
 
         } catch (ExpiredJwtException e) {
-            System.err.println("❌ Token expirado durante validação");
+            Tracer.event(JWT, INFO, "jwt.invalid", "reason", "expired");
             return false;
         } catch (UnsupportedJwtException e) {
-            System.err.println("❌ Token não suportado durante validação");
+            Tracer.event(JWT, INFO, "jwt.invalid", "reason", "unsupported");
             return false;
         } catch (MalformedJwtException e) {
-            System.err.println("❌ Token malformado durante validação");
+            Tracer.event(JWT, INFO, "jwt.invalid", "reason", "malformed");
             return false;
         } catch (io.jsonwebtoken.security.SecurityException e) {
-            System.err.println("❌ Assinatura inválida durante validação");
+            Tracer.event(JWT, WARN, "jwt.invalid", "reason", "bad-signature");
             return false;
         } catch (IllegalArgumentException e) {
-            System.err.println("❌ Argumento inválido durante validação");
+            Tracer.event(JWT, INFO, "jwt.invalid", "reason", "illegal-argument");
             return false;
         } catch (Exception e) {
-            System.err.println("❌ Erro inesperado durante validação: " + e.getMessage());
+            Tracer.event(JWT, ERROR, "jwt.invalid", "reason", "unexpected", "error", e.getMessage());
             return false;
         }
     }
@@ -191,21 +187,16 @@ public class JwtUtil {
      */
     public void debugToken(String token) {
         try {
-            System.out.println("\n=== 🔍 DEBUG TOKEN JWT ===");
-            System.out.println("📄 Token (primeiros 50 chars): " + token.substring(0, Math.min(50, token.length())) + "...");
-
-            Claims claims = getAllClaimsFromToken(token);
-            System.out.println("📧 Subject (email): " + claims.getSubject());
-            System.out.println("👤 Role: " + claims.get("role"));
-            System.out.println("🏢 Issuer: " + claims.get("iss"));
-            System.out.println("📅 Issued At: " + claims.getIssuedAt());
-            System.out.println("⏰ Expiration: " + claims.getExpiration());
-            System.out.println("❓ Is Expired: " + isTokenExpired(token));
-            System.out.println("✅ Is Valid: " + validateToken(token));
-            System.out.println("🔑 Signing Key Length: " + getSigningKey().getEncoded().length + " bytes");
-            System.out.println("==========================\n");
+            VerifiedClaims claims = getVerifiedClaims(token);
+            Tracer.event(JWT, DEBUG, "jwt.debug.claims",
+                    "email", claims.getSubject(), "role", claims.getRole(), "issuer", claims.getIssuer());
+            Tracer.event(JWT, DEBUG, "jwt.debug.validity",
+                    "issuedAt", claims.getIssuedAt(), "expiration", claims.getExpiration(),
+                    "expired", isTokenExpired(token));
+            Tracer.event(JWT, DEBUG, "jwt.debug.key",
+                    "kid", keyRing.getActiveKid(), "keyLength", keyRing.getActiveKey().getEncoded().length);
         } catch (Exception e) {
-            System.err.println("❌ Erro ao fazer debug do token: " + e.getMessage());
+            Tracer.event(JWT, DEBUG, "jwt.debug.error", "error", e.getMessage());
         }
     }
 
@@ -214,26 +205,20 @@ public class JwtUtil {
      */
     public void testTokenGeneration() {
         try {
-            System.out.println("\n=== 🧪 TESTE DE TOKEN ===");
-
             // Gerar token de teste
             String testToken = generateToken("admin@ecommerce.com", "ADMIN");
-            System.out.println("🎫 Token gerado: " + testToken.substring(0, 50) + "...");
 
             // Testar validação
             boolean isValid = validateToken(testToken);
-            System.out.println("✅ Token válido: " + isValid);
 
             if (isValid) {
-                String email = getEmailFromToken(testToken);
-                String role = getRoleFromToken(testToken);
-                System.out.println("📧 Email extraído: " + email);
-                System.out.println("👤 Role extraída: " + role);
+                Tracer.event(JWT, INFO, "jwt.selftest",
+                        "valid", true, "email", getEmailFromToken(testToken), "role", getRoleFromToken(testToken));
+            } else {
+                Tracer.event(JWT, WARN, "jwt.selftest", "valid", false);
             }
-
-            System.out.println("========================\n");
         } catch (Exception e) {
-            System.err.println("❌ Erro no teste de token: " + e.getMessage());
+            Tracer.event(JWT, ERROR, "jwt.selftest.error", "error", e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.project.ecommerce.security;
+
+import com.project.ecommerce.tracing.Tracer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+import static com.project.ecommerce.tracing.TraceCategory.SECURITY;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+import static com.project.ecommerce.tracing.TraceLevel.WARN;
+
+/**
+ * Versão WebFlux do JwtAuthenticationFilter, para a API reativa. A validação
+ * é a mesma (JwtUtil com cache de claims verificadas, só CPU), então roda
+ * direto na thread do event loop; a autenticação vai para o contexto do
+ * Reactor em vez do SecurityContextHolder.
+ */
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+
+    public ReactiveJwtAuthenticationFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (!StringUtils.hasText(authHeader) || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        UsernamePasswordAuthenticationToken authentication;
+        try {
+            authentication = authenticate(authHeader.substring(7), exchange);
+        } catch (Exception e) {
+            Tracer.event(SECURITY, WARN, "jwt.processing.error",
+                    "type", e.getClass().getSimpleName(), "error", e.getMessage());
+            authentication = null;
+        }
+
+        if (authentication == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String token, ServerWebExchange exchange) {
+        if (!jwtUtil.validateToken(token)) {
+            Tracer.event(SECURITY, INFO, "jwt.rejected", "uri", exchange.getRequest().getPath().value());
+            return null;
+        }
+
+        VerifiedClaims claims = jwtUtil.getVerifiedClaims(token);
+        String email = claims.getSubject();
+        String role = claims.getRole();
+        if (email == null || role == null) {
+            Tracer.event(SECURITY, WARN, "jwt.claims.missing", "email", email, "role", role);
+            return null;
+        }
+
+        return new UsernamePasswordAuthenticationToken(
+                email,
+                null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
+        );
+    }
+}
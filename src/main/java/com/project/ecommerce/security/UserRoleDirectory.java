@@ -0,0 +1,116 @@
+package com.project.ecommerce.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.ecommerce.entity.User;
+import com.project.ecommerce.repository.UserRepository;
+import com.project.ecommerce.service.CacheLoads;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Diretório em memória de usuários (email, hash da senha e role), usado por
+ * AuthService.isAdmin e CustomUserDetailsService para não consultar o banco
+ * a cada requisição. As entradas vivem no máximo o TTL configurado e são
+ * invalidadas pelo {@link UserRoleDirectoryListener} quando um usuário é
+ * criado, alterado ou removido.
+ */
+@Component
+public class UserRoleDirectory {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${auth.user-directory.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${auth.user-directory.max-size:10000}")
+    private long maxSize;
+
+    private AsyncCache<String, Entry> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Buscar o usuário pelo email, consultando o banco apenas em caso de miss
+     */
+    public Optional<Entry> find(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(CacheLoads.get(cache, email, key -> userRepository.findByEmail(key)
+                .map(Entry::of)
+                .orElse(null)));
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            cache.synchronous().invalidate(email);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public long getHitCount() {
+        return cache.synchronous().stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.synchronous().stats().missCount();
+    }
+
+    /**
+     * Snapshot imutável dos dados de autenticação do usuário
+     */
+    public static final class Entry {
+        private final Long id;
+        private final String email;
+        private final String password;
+        private final User.Role role;
+
+        private Entry(Long id, String email, String password, User.Role role) {
+            this.id = id;
+            this.email = email;
+            this.password = password;
+            this.role = role;
+        }
+
+        static Entry of(User user) {
+            return new Entry(user.getId(), user.getEmail(), user.getPassword(), user.getRole());
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public User.Role getRole() {
+            return role;
+        }
+
+        public boolean isAdmin() {
+            return role == User.Role.ADMIN;
+        }
+    }
+}
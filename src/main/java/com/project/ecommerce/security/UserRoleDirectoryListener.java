@@ -0,0 +1,47 @@
+package com.project.ecommerce.security;
+
+import com.project.ecommerce.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA da entidade User que invalida o {@link UserRoleDirectory}
+ * em cadastros, mudanças de role e remoções. A invalidação é repetida após
+ * o commit para que uma leitura concorrente não recoloque o valor antigo.
+ */
+@Component
+public class UserRoleDirectoryListener {
+
+    // ObjectProvider evita o ciclo EntityManagerFactory -> listener -> repositório
+    @Autowired
+    private ObjectProvider<UserRoleDirectory> directory;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        String email = user.getEmail();
+        UserRoleDirectory userRoleDirectory = directory.getIfAvailable();
+
+        if (userRoleDirectory == null) {
+            return;
+        }
+
+        userRoleDirectory.invalidate(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userRoleDirectory.invalidate(email);
+                }
+            });
+        }
+    }
+}
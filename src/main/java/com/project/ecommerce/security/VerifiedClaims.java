@@ -0,0 +1,69 @@
+package com.project.ecommerce.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims imutáveis de um token cuja assinatura já foi verificada
+ */
+public final class VerifiedClaims {
+
+    private final String subject;
+    private final String role;
+    private final String issuer;
+    private final long issuedAtMillis;
+    private final long expirationMillis;
+
+    public VerifiedClaims(String subject, String role, String issuer, long issuedAtMillis, long expirationMillis) {
+        this.subject = subject;
+        this.role = role;
+        this.issuer = issuer;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expirationMillis = expirationMillis;
+    }
+
+    /**
+     * Copiar as claims usadas pela aplicação a partir do corpo parseado pelo jjwt
+     */
+    public static VerifiedClaims from(Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+
+        return new VerifiedClaims(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getIssuer(),
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE
+        );
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAtMillis > 0 ? new Date(issuedAtMillis) : null;
+    }
+
+    public Date getExpiration() {
+        return expirationMillis != Long.MAX_VALUE ? new Date(expirationMillis) : null;
+    }
+
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expirationMillis < nowMillis;
+    }
+}
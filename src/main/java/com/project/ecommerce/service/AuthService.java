@@ -4,12 +4,22 @@ import com.project.ecommerce.dto.*;
 import com.project.ecommerce.entity.User;
 import com.project.ecommerce.repository.UserRepository;
 import com.project.ecommerce.security.JwtUtil;
+import com.project.ecommerce.security.UserRoleDirectory;
+import com.project.ecommerce.tracing.Tracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
+import static com.project.ecommerce.tracing.TraceCategory.AUTH;
+import static com.project.ecommerce.tracing.TraceLevel.DEBUG;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+import static com.project.ecommerce.tracing.TraceLevel.WARN;
+
 @Service
 public class AuthService {
 
@@ -22,27 +32,41 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserRoleDirectory userRoleDirectory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer passwordHashTimer;
+
+    @PostConstruct
+    void init() {
+        passwordHashTimer = Timer.builder("auth.password.hash")
+                .description("Tempo da verificação BCrypt no login")
+                .register(meterRegistry);
+    }
+
     public AuthResponse login(LoginRequest loginRequest) {
-        System.out.println("Tentativa de login para: " + loginRequest.getEmail());
+        Tracer.event(AUTH, DEBUG, "login.attempt", "email", loginRequest.getEmail());
 
         Optional<User> userOptional = userRepository.findByEmail(loginRequest.getEmail());
 
         if (userOptional.isEmpty()) {
-            System.out.println("Usuário não encontrado: " + loginRequest.getEmail());
+            Tracer.event(AUTH, INFO, "login.user-not-found", "email", loginRequest.getEmail());
             throw new RuntimeException("Usuário não encontrado");
         }
 
         User user = userOptional.get();
-        System.out.println("Usuário encontrado: " + user.getEmail() + ", Role: " + user.getRole());
+        Tracer.event(AUTH, DEBUG, "login.user-found", "email", user.getEmail(), "role", user.getRole());
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-            System.out.println("Senha incorreta para: " + loginRequest.getEmail());
+        if (!passwordMatches(loginRequest.getPassword(), user.getPassword())) {
+            Tracer.event(AUTH, INFO, "login.bad-password", "email", loginRequest.getEmail());
             throw new RuntimeException("Senha incorreta");
         }
 
         String token = jwtUtil.generateToken(user.getEmail(), user.getRole().toString());
-        System.out.println("Token gerado com sucesso para: " + user.getEmail());
-        System.out.println("Token: " + token.substring(0, 50) + "...");
+        Tracer.event(AUTH, DEBUG, "login.token-issued", "email", user.getEmail());
 
         UserDTO userDTO = convertToUserDTO(user);
 
@@ -50,29 +74,29 @@ public class AuthService {
     }
 
     public AuthResponse loginAdmin(LoginRequest loginRequest) {
-        System.out.println("Tentativa de login admin para: " + loginRequest.getEmail());
+        Tracer.event(AUTH, DEBUG, "login-admin.attempt", "email", loginRequest.getEmail());
 
         Optional<User> userOptional = userRepository.findByEmail(loginRequest.getEmail());
 
         if (userOptional.isEmpty()) {
-            System.out.println("Usuário admin não encontrado: " + loginRequest.getEmail());
+            Tracer.event(AUTH, INFO, "login-admin.user-not-found", "email", loginRequest.getEmail());
             throw new RuntimeException("Usuário não encontrado");
         }
 
         User user = userOptional.get();
 
         if (!user.isAdmin()) {
-            System.out.println("Usuário não é admin: " + loginRequest.getEmail());
+            Tracer.event(AUTH, WARN, "login-admin.not-admin", "email", loginRequest.getEmail());
             throw new RuntimeException("Acesso negado. Apenas administradores podem fazer login admin.");
         }
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-            System.out.println("Senha incorreta para admin: " + loginRequest.getEmail());
+        if (!passwordMatches(loginRequest.getPassword(), user.getPassword())) {
+            Tracer.event(AUTH, WARN, "login-admin.bad-password", "email", loginRequest.getEmail());
             throw new RuntimeException("Senha incorreta");
         }
 
         String token = jwtUtil.generateToken(user.getEmail(), user.getRole().toString());
-        System.out.println("Token admin gerado com sucesso para: " + user.getEmail());
+        Tracer.event(AUTH, DEBUG, "login-admin.token-issued", "email", user.getEmail());
 
         UserDTO userDTO = convertToUserDTO(user);
 
@@ -98,9 +122,16 @@ public class AuthService {
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
     }
 
+    // Consultado a cada chamada @AdminOnly: servido pelo diretório em cache
     public boolean isAdmin(String email) {
-        User user = getUserByEmail(email);
-        return user.isAdmin();
+        return userRoleDirectory.find(email)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"))
+                .isAdmin();
+    }
+
+    // Verificação BCrypt medida em auth.password.hash
+    private boolean passwordMatches(String rawPassword, String encodedPassword) {
+        return passwordHashTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword));
     }
 
     private UserDTO convertToUserDTO(User user) {
@@ -0,0 +1,47 @@
+package com.project.ecommerce.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Leitura read-through de um AsyncCache com o loader executado fora do lock.
+ * Cache.get(key, loader) roda o loader dentro do ConcurrentHashMap.compute,
+ * sob o monitor do bin; com uma consulta JDBC no loader, uma thread virtual
+ * (Java 21) fica presa à thread carregadora durante todo o I/O. Aqui o compute
+ * só registra um future vazio: quem o criou executa o loader na própria thread
+ * (e transação), e os misses concorrentes para a mesma chave esperam o mesmo
+ * future. Loader que devolve null não deixa entrada no cache.
+ */
+public final class CacheLoads {
+
+    private CacheLoads() {
+    }
+
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+
+        if (future == created) {
+            try {
+                V value = loader.apply(key);
+                created.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.ecommerce.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de versão do catálogo. Toda escrita do ProductService avança a
+ * versão após o commit; caches derivados do catálogo inteiro (facetas,
+ * ETags de listagens) usam a versão na chave em vez de invalidação explícita.
+ *
+ * O contador recomeça a cada inicialização, por isso a ETag inclui também um
+ * identificador da inicialização.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModifiedMillis = System.currentTimeMillis();
+
+    public long current() {
+        return version.get();
+    }
+
+    public void bumpAfterCommit() {
+        TransactionCallbacks.afterCommit(() -> {
+            lastModifiedMillis = System.currentTimeMillis();
+            version.incrementAndGet();
+        });
+    }
+
+    /**
+     * ETag forte das listagens: muda a cada escrita no catálogo
+     */
+    public String etag() {
+        return "\"c" + bootId + "-" + version.get() + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModifiedMillis;
+    }
+}
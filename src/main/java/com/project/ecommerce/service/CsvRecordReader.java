@@ -0,0 +1,109 @@
+package com.project.ecommerce.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) registro a registro: campos entre aspas podem
+ * conter vírgulas, quebras de linha e aspas duplicadas. Só o registro atual
+ * fica em memória.
+ */
+final class CsvRecordReader {
+
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private int line = 1;
+    private int recordLine;
+    private int pending = NONE;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Próximo registro, ou null no fim da entrada
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            skipLineBreak(c);
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Aspas não fechadas no registro da linha " + recordLine);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                record.add(field.toString());
+                if (c != -1) {
+                    skipLineBreak(c);
+                }
+                return record;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Linha em que começou o último registro lido
+     */
+    int recordLine() {
+        return recordLine;
+    }
+
+    // Completa a quebra de linha iniciada por c ("\r\n", "\r" ou "\n")
+    private void skipLineBreak(int c) throws IOException {
+        line++;
+        if (c == '\r') {
+            int following = read();
+            if (following != '\n') {
+                pending = following;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != NONE) {
+            int c = pending;
+            pending = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+}
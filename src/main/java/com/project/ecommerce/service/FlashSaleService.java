@@ -0,0 +1,499 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.config.BackgroundThreads;
+import com.project.ecommerce.dto.FlashSaleDTO;
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.exception.InsufficientStockException;
+import com.project.ecommerce.repository.ProductRepository;
+import com.project.ecommerce.search.ProductColumnStore;
+import com.project.ecommerce.tracing.Tracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import static com.project.ecommerce.tracing.TraceCategory.CATALOG;
+import static com.project.ecommerce.tracing.TraceLevel.ERROR;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+
+/**
+ * Modo de venda relâmpago por produto. Ao ativar, o estoque do banco menos as
+ * unidades retidas por reservas é carregado em um contador atômico e as
+ * compras do produto passam a ser admitidas com CAS nesse contador, sem lock
+ * e sem tocar no banco; com o contador em zero a resposta de esgotado é
+ * imediata. Enquanto a venda está aberta, reservar tira unidades do contador
+ * e liberar ou expirar as devolve ({@link #hold}, {@link #unhold}).
+ *
+ * As vendas admitidas são gravadas em grupo por uma thread própria a cada
+ * flash-sale.flush-interval-ms: um único UPDATE (ProductRepository.subtractSoldStock)
+ * por produto e intervalo. Enquanto a venda está ativa, o estoque exibido pelo
+ * banco fica atrasado em no máximo um intervalo.
+ *
+ * Com a venda aberta o contador é o único a escrever o estoque: abrir,
+ * encerrar, {@link #updateStock}, {@link #updateProduct} e {@link #deleteProduct}
+ * seguram o lock do produto em ProductStockLocks, o mesmo das compras e
+ * reservas, e as duas últimas encerram a venda (gravando o que foi vendido)
+ * antes de escrever. Assim a gravação em grupo não tem condição a checar e
+ * nenhuma compra admitida se perde.
+ */
+@Service
+public class FlashSaleService {
+
+    // Disponível de uma venda encerrada: nenhuma compra é admitida
+    private static final int CLOSED = Integer.MIN_VALUE;
+    private static final int INSUFFICIENT = -1;
+
+    @Value("${flash-sale.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockLocks stockLocks;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductColumnStore columnStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, Sale> sales = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService flusher;
+    private Counter admittedCounter;
+    private Counter soldOutCounter;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("flash-sale-flusher"));
+        flusher.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("flash-sale.active", sales, Map::size)
+                .description("Produtos em venda relâmpago")
+                .register(meterRegistry);
+        admittedCounter = Counter.builder("flash-sale.purchases")
+                .tag("outcome", "admitted")
+                .description("Compras admitidas pelo contador em memória")
+                .register(meterRegistry);
+        soldOutCounter = Counter.builder("flash-sale.purchases")
+                .tag("outcome", "sold-out")
+                .description("Compras recusadas sem consultar o banco")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("flash-sale.flush")
+                .description("Gravação em grupo das vendas de um produto")
+                .register(meterRegistry);
+    }
+
+    // Ativar a venda relâmpago. Com quantity o estoque é antes definido via updateStock
+    public FlashSaleDTO enable(Long id, Integer quantity) {
+        return stockLocks.withLock(id, () -> {
+            if (sales.containsKey(id)) {
+                throw new IllegalStateException("Venda relâmpago já ativa para o produto " + id);
+            }
+
+            // Estoque lido do banco com o lock e sem baixas em andamento: nenhuma baixa
+            // entra entre a leitura e a abertura, e as reservas não mudam
+            stockLocks.awaitNoPurchases(id);
+            ProductDTO product = quantity != null ? productService.updateStock(id, quantity) : loadProduct(id);
+            Sale sale = new Sale(id, product, stockLocks.reserved(id));
+            sales.put(id, sale);
+
+            Tracer.event(CATALOG, INFO, "flash-sale.enabled", "productId", id, "stock", sale.initialStock);
+            return sale.toDTO();
+        });
+    }
+
+    // Encerrar a venda: fecha a admissão, grava as vendas pendentes e devolve o produto
+    public ProductDTO disable(Long id) {
+        return stockLocks.withLock(id, () -> {
+            Sale sale = sales.get(id);
+            if (sale == null) {
+                throw new RuntimeException("Venda relâmpago não está ativa para o produto " + id);
+            }
+
+            close(sale);
+            Tracer.event(CATALOG, INFO, "flash-sale.disabled", "productId", id, "sold", sale.flushedSold);
+            return loadProduct(id);
+        });
+    }
+
+    public List<FlashSaleDTO> getActiveSales() {
+        return sales.values().stream()
+                .map(Sale::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public boolean isActive(Long id) {
+        return sales.containsKey(id);
+    }
+
+    // Venda aberta e admitindo; estável para quem segura o lock do produto
+    public boolean isOpen(Long id) {
+        Sale sale = sales.get(id);
+        return sale != null && available(sale.state.get()) != CLOSED;
+    }
+
+    // Disponível pelo contador, já sem as unidades retidas; null fora da venda
+    public Integer getStock(Long id) {
+        Sale sale = sales.get(id);
+        if (sale == null) {
+            return null;
+        }
+        int current = available(sale.state.get());
+        return current != CLOSED ? current : null;
+    }
+
+    /**
+     * Compra em um produto em venda relâmpago: um CAS no contador, sem lock e
+     * sem acesso ao banco. Retorna null se o produto não está em venda (o
+     * chamador faz a baixa no banco). As unidades retidas por reservas já
+     * estão fora do contador.
+     *
+     * @throws InsufficientStockException se o contador não cobre a quantidade
+     */
+    public ProductDTO purchase(Long id, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantidade deve ser maior que zero");
+        }
+
+        Sale sale = sales.get(id);
+        if (sale == null) {
+            return null;
+        }
+
+        int remaining = sale.take(quantity, true);
+        if (remaining == CLOSED) {
+            return null;
+        }
+        if (remaining == INSUFFICIENT) {
+            soldOutCounter.increment();
+            throw new InsufficientStockException(id, quantity);
+        }
+
+        admittedCounter.increment();
+        return withStock(sale.product, remaining + stockLocks.reserved(id));
+    }
+
+    /**
+     * Reter unidades de uma reserva no contador da venda aberta, com o lock do
+     * produto. Retorna false se não há venda aberta (a reserva conta só no banco).
+     *
+     * @throws InsufficientStockException se o contador não cobre a quantidade
+     */
+    public boolean hold(Long id, int quantity) {
+        Sale sale = sales.get(id);
+        if (sale == null) {
+            return false;
+        }
+        int remaining = sale.take(quantity, false);
+        if (remaining == INSUFFICIENT) {
+            throw new InsufficientStockException(id, quantity);
+        }
+        return remaining != CLOSED;
+    }
+
+    // Devolver ao contador as unidades de uma reserva liberada ou expirada, com o lock do produto
+    public void unhold(Long id, int quantity) {
+        Sale sale = sales.get(id);
+        if (sale != null) {
+            sale.give(quantity);
+        }
+    }
+
+    // Confirmar uma reserva pela venda aberta, com o lock do produto: as unidades já
+    // estão fora do contador e passam a vendidas. Retorna null se não há venda aberta
+    public ProductDTO confirmHold(Long id, int quantity) {
+        Sale sale = sales.get(id);
+        if (sale == null || !sale.sell(quantity)) {
+            return null;
+        }
+        admittedCounter.increment();
+        return withStock(sale.product, available(sale.state.get()) + stockLocks.reserved(id) - quantity);
+    }
+
+    // Definir o estoque; com venda ativa ela é encerrada e reaberta com o novo valor
+    public ProductDTO updateStock(Long id, Integer quantity) {
+        return stockLocks.withLock(id, () -> {
+            Sale sale = sales.get(id);
+            if (sale == null) {
+                return productService.updateStock(id, quantity);
+            }
+
+            close(sale);
+            enable(id, quantity);
+            return loadProduct(id);
+        });
+    }
+
+    // Atualizar o produto; com venda ativa ela é encerrada e reaberta com o estoque gravado
+    public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
+        return stockLocks.withLock(id, () -> {
+            Sale sale = sales.get(id);
+            if (sale == null) {
+                return productService.updateProduct(id, productDTO);
+            }
+
+            close(sale);
+            try {
+                return productService.updateProduct(id, productDTO);
+            } finally {
+                // Também quando o PUT falha (conflito de versão): a venda volta com o estoque atual
+                enable(id, null);
+            }
+        });
+    }
+
+    // Deletar o produto; com venda ativa as vendas pendentes são gravadas antes
+    public void deleteProduct(Long id) {
+        stockLocks.withLock(id, () -> {
+            Sale sale = sales.get(id);
+            if (sale != null) {
+                close(sale);
+            }
+            productService.deleteProduct(id);
+            return null;
+        });
+    }
+
+    private ProductDTO loadProduct(Long id) {
+        return transactionTemplate.execute(status -> productRepository.findById(id)
+                        .map(productService::convertToDTO))
+                .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + id));
+    }
+
+    private void flushAll() {
+        for (Sale sale : sales.values()) {
+            sale.flushLock.lock();
+            try {
+                long current = sale.state.get();
+                if (available(current) != CLOSED) {
+                    flush(sale, sold(current));
+                }
+            } catch (RuntimeException e) {
+                // As vendas continuam pendentes e entram na próxima gravação
+                Tracer.event(CATALOG, ERROR, "flash-sale.flush-failed", "productId", sale.productId,
+                        "error", e.getMessage());
+            } finally {
+                sale.flushLock.unlock();
+            }
+        }
+    }
+
+    private void close(Sale sale) {
+        sale.flushLock.lock();
+        try {
+            long last = sale.closeAdmission();
+            if (available(last) == CLOSED) {
+                return;
+            }
+            sale.finalRemaining = available(last);
+            try {
+                flush(sale, sold(last));
+            } catch (RuntimeException e) {
+                // Sem a gravação final a venda continua ativa (fechada, ninguém mudou o estado)
+                sale.state.set(last);
+                throw e;
+            }
+            sales.remove(sale.productId, sale);
+        } finally {
+            sale.flushLock.unlock();
+        }
+    }
+
+    // Chamado com flushLock: grava as vendas admitidas desde a última gravação
+    private void flush(Sale sale, int sold) {
+        int delta = sold - sale.flushedSold;
+        if (delta == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int updated = transactionTemplate.execute(status -> {
+            productCache.evictAfterCommit(sale.productId);
+            catalogVersion.bumpAfterCommit();
+            return productRepository.subtractSoldStock(sale.productId, delta, LocalDateTime.now());
+        });
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        sale.flushedSold += delta;
+
+        if (updated == 0) {
+            // A linha sumiu por fora de deleteProduct: não há onde gravar, a venda termina
+            long last = sale.closeAdmission();
+            if (available(last) != CLOSED) {
+                sale.finalRemaining = available(last);
+            }
+            Tracer.event(CATALOG, ERROR, "flash-sale.product-missing", "productId", sale.productId,
+                    "unflushedUnits", sold(last) - sale.flushedSold + delta);
+            sales.remove(sale.productId, sale);
+            return;
+        }
+
+        productService.getProductByID(sale.productId).ifPresent(product -> {
+            sale.product = product;
+            columnStore.updateInStock(sale.productId, product.getVersion(), product.getInStock());
+        });
+    }
+
+    private static ProductDTO withStock(ProductDTO product, int stock) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setPrice(product.getPrice());
+        dto.setOriginalPrice(product.getOriginalPrice());
+        dto.setImage(product.getImage());
+        dto.setCategory(product.getCategory());
+        dto.setRating(product.getRating());
+        dto.setInStock(stock > 0);
+        dto.setDescription(product.getDescription());
+        dto.setStockQuantity(stock);
+        dto.setVersion(product.getVersion());
+        return dto;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Sale sale : sales.values()) {
+            close(sale);
+        }
+    }
+
+    private static long state(int available, int sold) {
+        return ((long) available << 32) | (sold & 0xFFFFFFFFL);
+    }
+
+    private static int available(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int sold(long state) {
+        return (int) state;
+    }
+
+    /**
+     * Venda ativa de um produto. Disponível e vendido ficam num único long
+     * (state), alterado só por CAS: uma compra tira do disponível e soma ao
+     * vendido no mesmo passo, e fechar a venda não perde nenhuma compra
+     * admitida. flushedSold e finalRemaining só mudam com flushLock.
+     */
+    private static final class Sale {
+
+        final Long productId;
+        final int initialStock;
+        final AtomicLong state;
+        final LocalDateTime enabledAt = LocalDateTime.now();
+        final ReentrantLock flushLock = new ReentrantLock();
+        volatile ProductDTO product;
+        volatile int flushedSold;
+        volatile int finalRemaining;
+
+        Sale(Long productId, ProductDTO product, int reserved) {
+            this.productId = productId;
+            this.product = product;
+            this.initialStock = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+            this.state = new AtomicLong(state(initialStock - reserved, 0));
+        }
+
+        // Tirar do disponível (e somar ao vendido, numa compra): novo disponível, INSUFFICIENT ou CLOSED
+        int take(int quantity, boolean sell) {
+            while (true) {
+                long current = state.get();
+                int available = available(current);
+                if (available == CLOSED) {
+                    return CLOSED;
+                }
+                if (available < quantity) {
+                    return INSUFFICIENT;
+                }
+                int sold = sold(current) + (sell ? quantity : 0);
+                if (state.compareAndSet(current, state(available - quantity, sold))) {
+                    return available - quantity;
+                }
+            }
+        }
+
+        // Devolver ao disponível; numa venda fechada não há o que devolver
+        void give(int quantity) {
+            while (true) {
+                long current = state.get();
+                if (available(current) == CLOSED
+                        || state.compareAndSet(current, state(available(current) + quantity, sold(current)))) {
+                    return;
+                }
+            }
+        }
+
+        // Somar ao vendido unidades já fora do disponível; false se a venda fechou
+        boolean sell(int quantity) {
+            while (true) {
+                long current = state.get();
+                if (available(current) == CLOSED) {
+                    return false;
+                }
+                if (state.compareAndSet(current, state(available(current), sold(current) + quantity))) {
+                    return true;
+                }
+            }
+        }
+
+        // Fechar a admissão mantendo o vendido; devolve o estado anterior
+        long closeAdmission() {
+            while (true) {
+                long current = state.get();
+                if (state.compareAndSet(current, state(CLOSED, sold(current)))) {
+                    return current;
+                }
+            }
+        }
+
+        FlashSaleDTO toDTO() {
+            long current = state.get();
+            int left = available(current) == CLOSED ? finalRemaining : available(current);
+            int sold = sold(current);
+            return new FlashSaleDTO(productId, initialStock, left, sold, sold - flushedSold, enabledAt);
+        }
+    }
+}
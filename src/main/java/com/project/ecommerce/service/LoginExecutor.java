@@ -0,0 +1,103 @@
+package com.project.ecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool dedicado aos logins. A verificação BCrypt consome ~100 ms de CPU, então
+ * os logins rodam aqui (uma thread por núcleo, fila limitada) e não nas threads
+ * do Tomcat. Com a fila cheia a tarefa é rejeitada na hora e o controller
+ * responde 503, mantendo a navegação no catálogo disponível durante picos.
+ */
+@Component
+public class LoginExecutor {
+
+    // 0 = número de processadores disponíveis
+    @Value("${auth.login-executor.threads:0}")
+    private int threads;
+
+    @Value("${auth.login-executor.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+    private Timer queueWaitTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("auth.login.queue.depth", executor, e -> e.getQueue().size())
+                .description("Logins aguardando na fila")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Logins em execução")
+                .register(meterRegistry);
+        queueWaitTimer = Timer.builder("auth.login.queue.wait")
+                .description("Tempo de espera na fila de login")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("auth.login.rejected")
+                .description("Logins rejeitados por fila cheia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enfileirar uma tarefa de login.
+     *
+     * @throws RejectedExecutionException se a fila estiver cheia
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
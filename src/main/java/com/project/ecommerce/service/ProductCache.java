@@ -0,0 +1,65 @@
+package com.project.ecommerce.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.ecommerce.dto.ProductDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache read-through de produtos por ID na frente do ProductRepository.
+ * Caffeine (limitado por tamanho, despejo W-TinyLFU) com estatísticas de
+ * hit/miss publicadas como cache.* no Micrometer. Misses concorrentes para o
+ * mesmo ID executam uma única consulta, fora do lock do cache (CacheLoads).
+ * As escritas do ProductService invalidam a entrada após o commit.
+ */
+@Component
+public class ProductCache {
+
+    @Value("${product-cache.max-size:10000}")
+    private long maxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AsyncCache<Long, ProductDTO> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    /**
+     * Buscar no cache; em caso de miss o loader é executado uma única vez por ID
+     */
+    public Optional<ProductDTO> get(Long id, Function<Long, Optional<ProductDTO>> loader) {
+        return Optional.ofNullable(CacheLoads.get(cache, id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Invalidar a entrada depois do commit da transação corrente
+     */
+    public void evictAfterCommit(Long id) {
+        TransactionCallbacks.afterCommit(() -> cache.synchronous().invalidate(id));
+    }
+
+    public long getHitCount() {
+        return cache.synchronous().stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.synchronous().stats().missCount();
+    }
+}
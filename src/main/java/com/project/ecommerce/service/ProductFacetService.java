@@ -0,0 +1,200 @@
+package com.project.ecommerce.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.ecommerce.dto.FacetsDTO;
+import com.project.ecommerce.dto.PriceBucketDTO;
+import com.project.ecommerce.entity.Product;
+import com.project.ecommerce.repository.ProductRepository;
+import com.project.ecommerce.repository.ProductSpecifications;
+import com.project.ecommerce.search.ProductSearchIndex;
+import com.project.ecommerce.search.TextAnalyzer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Facetas da busca de produtos (contagem por categoria, por disponibilidade e
+ * histograma de preços), calculadas em uma única agregação agrupada sobre o
+ * conjunto filtrado. O resultado fica em cache pela tupla normalizada de
+ * filtros mais a versão do catálogo, de modo que qualquer escrita no catálogo
+ * invalida as entradas anteriores.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductFacetService {
+
+    public static final Set<String> SUPPORTED_FACETS = Set.of("category", "inStock", "price");
+
+    @Value("${catalog.facets.price-buckets:50,100,200,500}")
+    private List<BigDecimal> priceBounds;
+
+    @Value("${catalog.facets.cache-size:1000}")
+    private long cacheSize;
+
+    @Value("${catalog.search.id-chunk-size:1000}")
+    private int idChunkSize;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AsyncCache<String, FacetsDTO> cache;
+
+    @PostConstruct
+    void init() {
+        priceBounds = priceBounds.stream().sorted().distinct().collect(Collectors.toList());
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "product-facets");
+    }
+
+    // Calcular as facetas solicitadas para os filtros da busca
+    public FacetsDTO getFacets(
+            Collection<String> facets,
+            String category,
+            Boolean inStock,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String name) {
+
+        Set<String> requested = new TreeSet<>();
+        for (String facet : facets) {
+            String trimmed = facet.trim();
+            if (!SUPPORTED_FACETS.contains(trimmed)) {
+                throw new IllegalArgumentException("Faceta não suportada: " + trimmed);
+            }
+            requested.add(trimmed);
+        }
+
+        String key = cacheKey(requested, category, inStock, minPrice, maxPrice, name);
+        return CacheLoads.get(cache, key, k -> computeFacets(requested, category, inStock, minPrice, maxPrice, name));
+    }
+
+    private String cacheKey(Set<String> requested, String category, Boolean inStock,
+                            BigDecimal minPrice, BigDecimal maxPrice, String name) {
+        String normalizedName = null;
+        if (name != null && !name.isBlank()) {
+            List<String> tokens = TextAnalyzer.foldedTokens(name);
+            normalizedName = tokens.isEmpty() || !searchIndex.isReady()
+                    ? "like:" + name.toLowerCase(Locale.ROOT)
+                    : "terms:" + String.join(" ", tokens);
+        }
+
+        return catalogVersion.current() + "|" + requested + "|" + category + "|" + inStock + "|"
+                + normalize(minPrice) + "|" + normalize(maxPrice) + "|" + normalizedName;
+    }
+
+    private static String normalize(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros().toPlainString();
+    }
+
+    private FacetsDTO computeFacets(Set<String> requested, String category, Boolean inStock,
+                                    BigDecimal minPrice, BigDecimal maxPrice, String name) {
+        boolean byCategory = requested.contains("category");
+        boolean byStock = requested.contains("inStock");
+        boolean byPrice = requested.contains("price");
+
+        Specification<Product> specification = ProductSpecifications.withFilters(
+                category, inStock, minPrice, maxPrice, null);
+
+        // Mesmo critério de nome da busca: índice invertido quando disponível. Os IDs
+        // do índice vão em blocos; as contagens de cada bloco somam-se abaixo
+        List<BigDecimal> bounds = byPrice ? priceBounds : null;
+        List<Tuple> rows = new ArrayList<>();
+        long[] ids = name != null && !name.isBlank() ? searchIndex.search(name) : null;
+        if (ids != null) {
+            List<Long> candidates = LongStream.of(ids).boxed().collect(Collectors.toList());
+            for (int from = 0; from < candidates.size(); from += idChunkSize) {
+                List<Long> chunk = candidates.subList(from, Math.min(from + idChunkSize, candidates.size()));
+                rows.addAll(productRepository.countFacets(
+                        specification.and(ProductSpecifications.idIn(chunk)), byCategory, byStock, bounds));
+            }
+        } else {
+            if (name != null && !name.isBlank()) {
+                specification = specification.and(ProductSpecifications.nameContains(name));
+            }
+            rows = productRepository.countFacets(specification, byCategory, byStock, bounds);
+        }
+
+        Map<String, Long> categoryCounts = new HashMap<>();
+        long inStockCount = 0;
+        long outOfStockCount = 0;
+        long[] bucketCounts = new long[priceBounds.size() + 1];
+
+        for (Tuple row : rows) {
+            long count = row.get("count", Long.class);
+            if (byCategory) {
+                categoryCounts.merge(row.get("category", String.class), count, Long::sum);
+            }
+            if (byStock) {
+                if (Boolean.TRUE.equals(row.get("inStock", Boolean.class))) {
+                    inStockCount += count;
+                } else {
+                    outOfStockCount += count;
+                }
+            }
+            if (byPrice) {
+                bucketCounts[row.get("price", Integer.class)] += count;
+            }
+        }
+
+        FacetsDTO result = new FacetsDTO();
+        if (byCategory) {
+            Map<String, Long> sorted = new LinkedHashMap<>();
+            categoryCounts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            result.setCategory(sorted);
+        }
+        if (byStock) {
+            Map<String, Long> stock = new LinkedHashMap<>();
+            stock.put("true", inStockCount);
+            stock.put("false", outOfStockCount);
+            result.setInStock(stock);
+        }
+        if (byPrice) {
+            List<PriceBucketDTO> buckets = new ArrayList<>(bucketCounts.length);
+            for (int i = 0; i < bucketCounts.length; i++) {
+                BigDecimal from = i == 0 ? BigDecimal.ZERO : priceBounds.get(i - 1);
+                BigDecimal to = i < priceBounds.size() ? priceBounds.get(i) : null;
+                buckets.add(new PriceBucketDTO(from, to, bucketCounts[i]));
+            }
+            result.setPrice(buckets);
+        }
+        return result;
+    }
+}
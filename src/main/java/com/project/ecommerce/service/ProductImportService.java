@@ -0,0 +1,373 @@
+package com.project.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.project.ecommerce.dto.ImportErrorDTO;
+import com.project.ecommerce.dto.ImportReportDTO;
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.entity.Product;
+import com.project.ecommerce.search.ProductColumnStore;
+import com.project.ecommerce.search.ProductSearchIndex;
+import com.project.ecommerce.tracing.Tracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static com.project.ecommerce.tracing.TraceCategory.CATALOG;
+import static com.project.ecommerce.tracing.TraceLevel.INFO;
+
+/**
+ * Importação em massa de produtos a partir de CSV (com cabeçalho) ou NDJSON.
+ * A entrada é lida registro a registro e cada linha é validada com as mesmas
+ * regras do ProductDTO; as válidas são persistidas em lotes, uma transação
+ * por lote. Como o id vem da sequência em blocos, o Hibernate agrupa os
+ * INSERTs do lote em batches JDBC (hibernate.jdbc.batch_size), e o contexto
+ * de persistência é limpo a cada lote. Em memória ficam só o lote corrente e
+ * a lista limitada de erros; após o commit, os produtos do lote entram nos
+ * índices em memória de forma incremental, sem recarregar o catálogo.
+ *
+ * Os dois formatos aceitam os mesmos campos, com a mesma conversão de
+ * valores. Um campo desconhecido é erro nos dois: no CSV ele está no
+ * cabeçalho e recusa a importação inteira; no NDJSON recusa só a linha em que
+ * aparece, assim como uma linha que não seja um objeto JSON.
+ *
+ * Se um lote falhar no banco, suas linhas são regravadas uma a uma para que
+ * apenas as problemáticas entrem no relatório.
+ */
+@Service
+public class ProductImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    // Colunas do CSV e campos do NDJSON aceitos (comparados sem maiúsculas nem "_")
+    private static final Map<String, Column> COLUMNS = new HashMap<>();
+
+    static {
+        COLUMNS.put("name", ProductDTO::setName);
+        COLUMNS.put("price", (dto, value) -> dto.setPrice(parseDecimal(value)));
+        COLUMNS.put("originalprice", (dto, value) -> dto.setOriginalPrice(parseDecimal(value)));
+        COLUMNS.put("image", ProductDTO::setImage);
+        COLUMNS.put("category", ProductDTO::setCategory);
+        COLUMNS.put("rating", (dto, value) -> dto.setRating(Double.valueOf(value.trim())));
+        COLUMNS.put("instock", (dto, value) -> dto.setInStock(parseBoolean(value)));
+        COLUMNS.put("description", ProductDTO::setDescription);
+        COLUMNS.put("stockquantity", (dto, value) -> dto.setStockQuantity(Integer.valueOf(value.trim())));
+    }
+
+    // Campos de um produto exportado que a importação não grava
+    private static final Set<String> IGNORED_COLUMNS = Set.of("id", "version", "createdat", "updatedat", "lastmodified");
+
+    @Value("${catalog.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${catalog.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductColumnStore columnStore;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("catalog.import.chunk-size deve ser maior que zero");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Importar produtos; as linhas gravadas antes de um erro de leitura permanecem
+    public ImportReportDTO importProducts(Reader input, Format format) {
+        ImportRun run = new ImportRun();
+        long start = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(input);
+        if (format == Format.CSV) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.flush();
+
+        ImportReportDTO report = run.report;
+        long elapsedNanos = System.nanoTime() - start;
+        report.setElapsedMillis(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(elapsedNanos == 0 ? 0 : report.getTotalRows() * 1_000_000_000.0 / elapsedNanos);
+
+        meterRegistry.counter("catalog.import.rows", "outcome", "imported").increment(report.getImported());
+        meterRegistry.counter("catalog.import.rows", "outcome", "rejected").increment(report.getRejected());
+        Tracer.event(CATALOG, INFO, "import.finished", "imported", report.getImported(),
+                "rejected", report.getRejected(), "rowsPerSecond", Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        try {
+            List<String> header = records.next();
+            if (header == null) {
+                return;
+            }
+
+            Column[] columns = new Column[header.size()];
+            for (int i = 0; i < header.size(); i++) {
+                String name = columnKey(header.get(i));
+                if (i == 0 && name.startsWith("\uFEFF")) {
+                    name = name.substring(1);
+                }
+                if (!isKnownColumn(name)) {
+                    throw new IllegalArgumentException("Coluna desconhecida no CSV: " + header.get(i).trim());
+                }
+                columns[i] = COLUMNS.get(name);
+            }
+
+            List<String> record;
+            while ((record = records.next()) != null) {
+                long line = records.recordLine();
+                if (record.size() != columns.length) {
+                    run.reject(line, List.of("Número de colunas (" + record.size()
+                            + ") diferente do cabeçalho (" + columns.length + ")"));
+                    continue;
+                }
+
+                ProductDTO dto = new ProductDTO();
+                List<String> errors = new ArrayList<>();
+                for (int i = 0; i < columns.length; i++) {
+                    setColumn(dto, columns[i], header.get(i).trim(), record.get(i), errors);
+                }
+                run.accept(line, dto, errors);
+            }
+        } catch (IOException e) {
+            run.reject(records.recordLine(), List.of("Leitura interrompida: " + e.getMessage()));
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) {
+        ObjectReader treeReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        long line = 0;
+        try {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+
+                JsonNode node;
+                try {
+                    node = treeReader.readTree(text);
+                } catch (JsonProcessingException e) {
+                    run.reject(line, List.of("JSON inválido: " + e.getOriginalMessage()));
+                    continue;
+                }
+                if (node == null || !node.isObject()) {
+                    run.reject(line, List.of("Linha não é um objeto JSON"));
+                    continue;
+                }
+
+                ProductDTO dto = new ProductDTO();
+                List<String> errors = new ArrayList<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    String name = columnKey(field.getKey());
+                    JsonNode value = field.getValue();
+                    if (!isKnownColumn(name)) {
+                        errors.add("Campo desconhecido: " + field.getKey());
+                    } else if (value.isContainerNode()) {
+                        errors.add(field.getKey() + ": valor inválido '" + value + "'");
+                    } else if (!value.isNull()) {
+                        setColumn(dto, COLUMNS.get(name), field.getKey(), value.asText(), errors);
+                    }
+                }
+                run.accept(line, dto, errors);
+            }
+        } catch (IOException e) {
+            run.reject(line + 1, List.of("Leitura interrompida: " + e.getMessage()));
+        }
+    }
+
+    private static String columnKey(String name) {
+        return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isKnownColumn(String key) {
+        return COLUMNS.containsKey(key) || IGNORED_COLUMNS.contains(key);
+    }
+
+    // Valor vazio fica sem definir, como campo ausente; coluna null é ignorada
+    private static void setColumn(ProductDTO dto, Column column, String label, String value, List<String> errors) {
+        if (column == null || value.isEmpty()) {
+            return;
+        }
+        try {
+            column.set(dto, value);
+        } catch (IllegalArgumentException e) {
+            errors.add(label + ": valor inválido '" + value + "'");
+        }
+    }
+
+    private static BigDecimal parseDecimal(String value) {
+        return new BigDecimal(value.trim());
+    }
+
+    private static Boolean parseBoolean(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case "true", "1", "sim" -> true;
+            case "false", "0", "nao", "não" -> false;
+            default -> throw new IllegalArgumentException(normalized);
+        };
+    }
+
+    private static Product toProduct(ProductDTO dto) {
+        Product product = new Product();
+        product.setName(dto.getName());
+        product.setPrice(dto.getPrice());
+        product.setOriginalPrice(dto.getOriginalPrice());
+        product.setImage(dto.getImage());
+        product.setCategory(dto.getCategory());
+        product.setRating(dto.getRating() != null ? dto.getRating() : 0.0);
+        product.setInStock(dto.getInStock() == null || dto.getInStock());
+        product.setDescription(dto.getDescription());
+        product.setStockQuantity(dto.getStockQuantity() != null ? dto.getStockQuantity() : 0);
+        return product;
+    }
+
+    @FunctionalInterface
+    private interface Column {
+        void set(ProductDTO dto, String value);
+    }
+
+    private record PendingRow(long line, ProductDTO product) {
+    }
+
+    /**
+     * Estado de uma importação: lote pendente e relatório
+     */
+    private class ImportRun {
+
+        private final ImportReportDTO report = new ImportReportDTO();
+        private final List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        void accept(long line, ProductDTO dto, List<String> errors) {
+            report.setTotalRows(report.getTotalRows() + 1);
+            for (ConstraintViolation<ProductDTO> violation : validator.validate(dto)) {
+                errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            if (!errors.isEmpty()) {
+                addError(line, errors);
+                return;
+            }
+
+            chunk.add(new PendingRow(line, dto));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, List<String> errors) {
+            report.setTotalRows(report.getTotalRows() + 1);
+            addError(line, errors);
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            try {
+                persist(chunk);
+                report.setImported(report.getImported() + chunk.size());
+            } catch (PersistenceException | DataAccessException e) {
+                // Regravar linha a linha para isolar as que o banco recusa
+                for (PendingRow row : chunk) {
+                    try {
+                        persist(List.of(row));
+                        report.setImported(report.getImported() + 1);
+                    } catch (PersistenceException | DataAccessException rowError) {
+                        addError(row.line(), List.of("Erro ao gravar: "
+                                + NestedExceptionUtils.getMostSpecificCause(rowError).getMessage()));
+                    }
+                }
+            }
+            report.setChunks(report.getChunks() + 1);
+            chunk.clear();
+        }
+
+        // Ids novos não estão no ProductCache (ausências não são guardadas), então
+        // após o commit basta indexar os produtos do lote e avançar a versão do catálogo
+        private void persist(List<PendingRow> rows) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Product> products = new ArrayList<>(rows.size());
+                for (PendingRow row : rows) {
+                    Product product = toProduct(row.product());
+                    entityManager.persist(product);
+                    products.add(product);
+                }
+                entityManager.flush();
+                entityManager.clear();
+
+                catalogVersion.bumpAfterCommit();
+                TransactionCallbacks.afterCommit(() -> products.forEach(searchIndex::index));
+                TransactionCallbacks.afterCommit(() -> products.forEach(columnStore::index));
+            });
+        }
+
+        private void addError(long line, List<String> errors) {
+            report.setRejected(report.getRejected() + 1);
+            if (report.getErrors().size() < maxReportedErrors) {
+                report.getErrors().add(new ImportErrorDTO(line, errors));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+    }
+}
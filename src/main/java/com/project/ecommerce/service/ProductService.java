@@ -1,30 +1,104 @@
 package com.project.ecommerce.service;
 
+import com.project.ecommerce.dto.CursorPageDTO;
 import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.dto.ProductSummaryDTO;
 import com.project.ecommerce.entity.Product;
+import com.project.ecommerce.exception.InsufficientStockException;
+import com.project.ecommerce.exception.ProductConflictException;
+import com.project.ecommerce.repository.ProductCursor;
 import com.project.ecommerce.repository.ProductRepository;
+import com.project.ecommerce.repository.ProductSpecifications;
+import com.project.ecommerce.search.ProductColumnStore;
+import com.project.ecommerce.search.ProductSearchIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
+/**
+ * Catálogo de produtos. Escritas em transação de leitura e escrita (padrão da
+ * classe); as leituras são readOnly: o Hibernate não guarda snapshots para
+ * dirty checking nem faz flush no commit, e com réplica configurada
+ * (ReplicaRoutingConfig) elas são atendidas pela réplica. A exceção são as
+ * leituras de um produto por ID (preenchem o ProductCache e alimentam
+ * decisões de estoque) e a data usada na ETag, que ficam no primário: a
+ * réplica atrasada devolveria o valor anterior a uma escrita recém-confirmada.
+ */
 @Service
 @Transactional
 public class ProductService {
 
+    // Maior página aceita nas listagens paginadas, por offset ou por cursor
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Entidades lidas entre cada limpeza do contexto de persistência no streaming
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    // IDs por consulta ao filtrar no banco os candidatos do índice de busca
+    @Value("${catalog.search.id-chunk-size:1000}")
+    private int idChunkSize;
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductColumnStore columnStore;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     // Converter Entity para DTO
-    private ProductDTO convertToDTO(Product product) {
+    ProductDTO convertToDTO(Product product) {
         ProductDTO dto = new ProductDTO();
         dto.setId(product.getId());
         dto.setName(product.getName());
@@ -36,11 +110,16 @@ public class ProductService {
         dto.setInStock(product.getInStock());
         dto.setDescription(product.getDescription());
         dto.setStockQuantity(product.getStockQuantity());
+        dto.setVersion(product.getVersion());
+        LocalDateTime lastModified = product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt();
+        if (lastModified != null) {
+            dto.setLastModified(lastModified.atZone(ZoneId.systemDefault()).toInstant());
+        }
         return dto;
     }
 
     // Converter DTO para Entity
-    private Product convertToEntity(ProductDTO dto) {
+    Product convertToEntity(ProductDTO dto) {
         Product product = new Product();
         product.setId(dto.getId());
         product.setName(dto.getName());
@@ -55,46 +134,151 @@ public class ProductService {
         return product;
     }
 
-    // Listar todos os produtos
+    // Listar todos os produtos em projeção de card
+    @Transactional(readOnly = true)
+    public List<ProductSummaryDTO> getAllProductSummaries() {
+        return productRepository.findAllSummaries();
+    }
+
+    // Listar todos os produtos com todos os campos (área administrativa)
+    @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts() {
         return productRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    // Percorrer todos os produtos sem materializar a lista, limpando o contexto
+    // de persistência a cada bloco para manter o uso de memória constante
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<ProductDTO> consumer) {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            Iterator<Product> iterator = products.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(convertToDTO(iterator.next()));
+                if (++count % STREAM_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
     // Listar produtos em estoque
-    public List<ProductDTO> getProductsInStock() {
-        return productRepository.findByInStockTrue().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<ProductSummaryDTO> getProductsInStock() {
+        return productRepository.findSummariesInStock();
     }
 
-    // Buscar produto por ID
+    // Buscar produto por ID (read-through no cache de produtos). O cache é
+    // consultado sem transação, então um hit não ocupa conexão do pool; só o miss
+    // abre uma transação de escrita, para ser carregado do primário
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<ProductDTO> getProductByID(Long id) {
-        return productRepository.findById(id)
-                .map(this::convertToDTO);
+        return productCache.get(id, key -> transactionTemplate.execute(status -> productRepository.findById(key)
+                .map(this::convertToDTO)));
     }
 
     // Buscar produtos por categoria
-    public List<ProductDTO> getProductsByCategory(String category) {
-        return productRepository.findByCategoryAndInStockTrue(category).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<ProductSummaryDTO> getProductsByCategory(String category) {
+        return productRepository.findSummariesByCategoryInStock(category);
     }
 
     // Buscar produtos com paginação
-    public Page<ProductDTO> getProductsWithPagination(int page, int size, String sortBy, String sortDir) {
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDTO> getProductsWithPagination(int page, int size, String sortBy, String sortDir) {
+        checkPageSize(size);
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() :
                 Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        return productRepository.findByInStockTrue(pageable)
-                .map(this::convertToDTO);
+        return productRepository.findSummariesInStock(pageable);
+    }
+
+    // Buscar produtos em estoque por cursor (keyset), sem consulta de COUNT
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductSummaryDTO> getProductsAfterCursor(String cursor, int size, String sortBy, String sortDir) {
+        checkPageSize(size);
+        ProductCursor position = cursor.isEmpty()
+                ? ProductCursor.first(sortBy, sortDir.equalsIgnoreCase("desc"))
+                : ProductCursor.decode(cursor);
+
+        return productRepository.findPageAfterCursor(
+                position, null, true, null, null, null, null, size);
+    }
+
+    // Buscar produtos com filtros por cursor, ordenados por nome
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductSummaryDTO> searchProductsAfterCursor(
+            String category,
+            Boolean inStock,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String name,
+            String cursor,
+            int size) {
+
+        checkPageSize(size);
+        ProductCursor position = cursor.isEmpty()
+                ? ProductCursor.first("name", false)
+                : ProductCursor.decode(cursor);
+
+        // Com o índice de busca disponível, o nome vira um filtro por IDs
+        String nameFilter = null;
+        if (name != null && !name.isBlank()) {
+            long[] matchingIds = searchIndex.search(name);
+            if (matchingIds == null) {
+                nameFilter = name;
+            } else if (matchingIds.length == 0) {
+                return new CursorPageDTO<>(List.of(), size, null);
+            } else {
+                List<Long> ids = LongStream.of(matchingIds).boxed().collect(Collectors.toList());
+                return findPageAfterCursorAmong(ids, position, category, inStock, minPrice, maxPrice, size);
+            }
+        }
+
+        return productRepository.findPageAfterCursor(
+                position, category, inStock, minPrice, maxPrice, nameFilter, null, size);
+    }
+
+    // Página por cursor restrita aos candidatos do índice, sem um IN com todos eles.
+    // Cada bloco de até idChunkSize IDs devolve as suas size + 1 primeiras linhas
+    // depois do cursor; a página final está entre elas. As rodadas se repetem até
+    // os sobreviventes caberem numa consulta, e a ordenação continua no banco
+    private CursorPageDTO<ProductSummaryDTO> findPageAfterCursorAmong(
+            List<Long> ids,
+            ProductCursor position,
+            String category,
+            Boolean inStock,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            int size) {
+
+        while (ids.size() > idChunkSize) {
+            List<Long> survivors = new ArrayList<>();
+            for (List<Long> chunk : chunks(ids)) {
+                productRepository.findPageAfterCursor(position, category, inStock, minPrice, maxPrice, null, chunk, size + 1)
+                        .getContent()
+                        .forEach(product -> survivors.add(product.getId()));
+            }
+            // Com size <= MAX_PAGE_SIZE cada rodada reduz a lista
+            if (survivors.size() >= ids.size()) {
+                throw new IllegalStateException("catalog.search.id-chunk-size deve ser maior que " + (size + 1));
+            }
+            ids = survivors;
+        }
+
+        if (ids.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), size, null);
+        }
+        return productRepository.findPageAfterCursor(position, category, inStock, minPrice, maxPrice, null, ids, size);
     }
 
     // Buscar produtos com filtros
-    public Page<ProductDTO> searchProducts(
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDTO> searchProducts(
             String category,
             Boolean inStock,
             BigDecimal minPrice,
@@ -103,24 +287,116 @@ public class ProductService {
             int page,
             int size) {
 
+        checkPageSize(size);
+
+        // Busca textual pelo índice invertido, quando disponível
+        if (name != null && !name.isBlank()) {
+            long[] rankedIds = searchIndex.search(name);
+            if (rankedIds != null) {
+                return searchIndexedProducts(rankedIds, category, inStock, minPrice, maxPrice, page, size);
+            }
+        }
+
+        // Apenas os filtros informados entram no SQL
         Pageable pageable = PageRequest.of(page, size, Sort.by("name"));
-        return productRepository.findProductsWithFilters(
-                        category, inStock, minPrice, maxPrice, name, pageable)
-                .map(this::convertToDTO);
+        if (name == null) {
+            // Com o motor colunar, os filtros são resolvidos em memória e o banco só carrega a página
+            Page<Long> pageIds = columnStore.search(category, inStock, minPrice, maxPrice, pageable);
+            if (pageIds != null) {
+                return new PageImpl<>(findSummariesInOrder(pageIds.getContent()), pageable, pageIds.getTotalElements());
+            }
+        }
+        return productRepository.findSummaries(
+                ProductSpecifications.withFilters(category, inStock, minPrice, maxPrice, name), pageable);
+    }
+
+    // Aplicar os demais filtros aos IDs ranqueados pelo índice e paginar por relevância
+    private Page<ProductSummaryDTO> searchIndexedProducts(
+            long[] rankedIds,
+            String category,
+            Boolean inStock,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            int page,
+            int size) {
+
+        if (rankedIds.length > 0 && (category != null || inStock != null || minPrice != null || maxPrice != null)) {
+            long[] filteredIds = columnStore.filter(rankedIds, category, inStock, minPrice, maxPrice);
+            if (filteredIds != null) {
+                rankedIds = filteredIds;
+            } else {
+                // Sem o motor colunar os filtros vão ao banco, em blocos de IDs de tamanho limitado
+                Specification<Product> filters = ProductSpecifications.withFilters(category, inStock, minPrice, maxPrice, null);
+                Set<Long> matching = new HashSet<>();
+                for (List<Long> chunk : chunks(LongStream.of(rankedIds).boxed().collect(Collectors.toList()))) {
+                    matching.addAll(productRepository.findIds(filters.and(ProductSpecifications.idIn(chunk))));
+                }
+                rankedIds = LongStream.of(rankedIds).filter(matching::contains).toArray();
+            }
+        }
+        List<Long> ids = LongStream.of(rankedIds).boxed().collect(Collectors.toList());
+
+        Pageable pageable = PageRequest.of(page, size);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + size, ids.size());
+        List<ProductSummaryDTO> content = findSummariesInOrder(ids.subList(from, to));
+
+        return new PageImpl<>(content, pageable, ids.size());
     }
 
-    // Criar produto
+    /**
+     * Validar o tamanho de página pedido pelo cliente
+     *
+     * @throws IllegalArgumentException se size estiver fora de 1..MAX_PAGE_SIZE
+     */
+    public static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // Blocos de até idChunkSize IDs, para que nenhum IN passe do limite de parâmetros do banco
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>((ids.size() + idChunkSize - 1) / idChunkSize);
+        for (int from = 0; from < ids.size(); from += idChunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + idChunkSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    // Carregar os cards de uma página de IDs, mantendo a ordem recebida
+    private List<ProductSummaryDTO> findSummariesInOrder(List<Long> pageIds) {
+        Map<Long, ProductSummaryDTO> productsById = productRepository.findSummariesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(ProductSummaryDTO::getId, Function.identity()));
+        return pageIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Criar produto. O id vem da sequência: um id enviado pelo cliente é ignorado,
+    // senão o save trataria a entidade como existente (merge) em vez de inseri-la
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = convertToEntity(productDTO);
+        product.setId(null);
+        product.setVersion(null);
         Product savedProduct = productRepository.save(product);
+        productCache.evictAfterCommit(savedProduct.getId());
+        catalogVersion.bumpAfterCommit();
+        TransactionCallbacks.afterCommit(() -> searchIndex.index(savedProduct));
+        TransactionCallbacks.afterCommit(() -> columnStore.index(savedProduct));
         return convertToDTO(savedProduct);
     }
 
-    // Atualizar produto
+    // Atualizar produto. Se o DTO traz a versão lida pelo cliente, ela precisa ser a
+    // atual; escritas concorrentes são detectadas pelo @Version no flush
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
         Optional<Product> existingProduct = productRepository.findById(id);
         if (existingProduct.isPresent()) {
             Product product = existingProduct.get();
+            if (productDTO.getVersion() != null && !productDTO.getVersion().equals(product.getVersion())) {
+                throw new ProductConflictException(id);
+            }
             product.setName(productDTO.getName());
             product.setPrice(productDTO.getPrice());
             product.setOriginalPrice(productDTO.getOriginalPrice());
@@ -131,7 +407,11 @@ public class ProductService {
             product.setDescription(productDTO.getDescription());
             product.setStockQuantity(productDTO.getStockQuantity());
 
-            Product updatedProduct = productRepository.save(product);
+            Product updatedProduct = saveAndFlush(product);
+            productCache.evictAfterCommit(id);
+            catalogVersion.bumpAfterCommit();
+            TransactionCallbacks.afterCommit(() -> searchIndex.index(updatedProduct));
+            TransactionCallbacks.afterCommit(() -> columnStore.index(updatedProduct));
             return convertToDTO(updatedProduct);
         }
         throw new RuntimeException("Produto não encontrado com ID: " + id);
@@ -141,6 +421,10 @@ public class ProductService {
     public void deleteProduct(Long id) {
         if (productRepository.existsById(id)) {
             productRepository.deleteById(id);
+            productCache.evictAfterCommit(id);
+            catalogVersion.bumpAfterCommit();
+            TransactionCallbacks.afterCommit(() -> searchIndex.remove(id));
+            TransactionCallbacks.afterCommit(() -> columnStore.remove(id));
         } else {
             throw new RuntimeException("Produto não encontrado com ID: " + id);
         }
@@ -154,9 +438,50 @@ public class ProductService {
             product.setStockQuantity(quantity);
             product.setInStock(quantity > 0);
 
-            Product updatedProduct = productRepository.save(product);
+            Product updatedProduct = saveAndFlush(product);
+            productCache.evictAfterCommit(id);
+            catalogVersion.bumpAfterCommit();
+            TransactionCallbacks.afterCommit(() -> columnStore.index(updatedProduct));
             return convertToDTO(updatedProduct);
         }
         throw new RuntimeException("Produto não encontrado com ID: " + id);
     }
+
+    // Baixar estoque (compra) em um único UPDATE condicional, sem ler o produto antes.
+    // Se não houver quantidade suficiente nada é alterado
+    public ProductDTO decrementStock(Long id, int quantity) {
+        return decrementStock(id, quantity, 0);
+    }
+
+    // Baixar estoque preservando "reserved" unidades retidas por reservas de outros clientes
+    public ProductDTO decrementStock(Long id, int quantity, int reserved) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantidade deve ser maior que zero");
+        }
+
+        if (productRepository.decrementStock(id, quantity, reserved, LocalDateTime.now()) == 0) {
+            if (!productRepository.existsById(id)) {
+                throw new RuntimeException("Produto não encontrado com ID: " + id);
+            }
+            throw new InsufficientStockException(id, quantity);
+        }
+
+        productCache.evictAfterCommit(id);
+        catalogVersion.bumpAfterCommit();
+        ProductDTO product = productRepository.findById(id)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + id));
+        TransactionCallbacks.afterCommit(() -> columnStore.updateInStock(id, product.getVersion(), product.getInStock()));
+        return product;
+    }
+
+    // Gravar já com flush, para que a versão devolvida ao cliente seja a nova e
+    // um conflito de versão apareça aqui como ProductConflictException
+    private Product saveAndFlush(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ProductConflictException(product.getId());
+        }
+    }
 }
@@ -0,0 +1,127 @@
+package com.project.ecommerce.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Locks de estoque por produto, repartidos em faixas fixas, e os contadores
+ * em memória que eles protegem: unidades retidas por reservas e unidades em
+ * baixa no banco ainda não concluída.
+ *
+ * Os trechos sob lock só leem e ajustam esses contadores (e o contador da
+ * venda relâmpago); a baixa no banco acontece fora dele, com o retido lido
+ * no lock indo para o predicado do UPDATE condicional. A admissão da venda
+ * relâmpago não passa por aqui. Abrir a venda e, sob disputa, reter unidades
+ * ({@link #awaitNoPurchases}) esperam as baixas em andamento para ler um
+ * estoque estável; a espera solta o lock.
+ *
+ * ReentrantLock, e não synchronized, para não prender a thread portadora de
+ * virtual threads.
+ */
+@Component
+public class ProductStockLocks {
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final Condition[] drained = new Condition[STRIPES];
+    // Baixas concluídas por faixa: muda sempre que o estoque de um produto da faixa pode ter mudado
+    private final AtomicLongArray purchaseStamps = new AtomicLongArray(STRIPES);
+    private final Map<Long, Counts> counts = new ConcurrentHashMap<>();
+
+    public ProductStockLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+            drained[i] = locks[i].newCondition();
+        }
+    }
+
+    public <T> T withLock(Long productId, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(productId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Unidades retidas por reservas (leitura sem lock, para exibição e métricas)
+    public int reserved(Long productId) {
+        Counts current = counts.get(productId);
+        return current != null ? current.reserved : 0;
+    }
+
+    // Unidades em baixa no banco ainda não concluída
+    public int pending(Long productId) {
+        Counts current = counts.get(productId);
+        return current != null ? current.pending : 0;
+    }
+
+    public long purchaseStamp(Long productId) {
+        return purchaseStamps.get(stripe(productId));
+    }
+
+    // Com o lock do produto
+    public void addReserved(Long productId, int delta) {
+        checkHeld(productId);
+        update(productId, delta, 0);
+    }
+
+    // Com o lock do produto: a baixa de "quantity" unidades vai ao banco
+    public void beginPurchase(Long productId, int quantity) {
+        checkHeld(productId);
+        update(productId, 0, quantity);
+    }
+
+    // Fim da baixa iniciada em beginPurchase; releasedHold são as unidades da reserva
+    // confirmada, que deixam de ser retidas no mesmo passo
+    public void endPurchase(Long productId, int quantity, int releasedHold) {
+        withLock(productId, () -> {
+            update(productId, -releasedHold, -quantity);
+            purchaseStamps.incrementAndGet(stripe(productId));
+            if (pending(productId) == 0) {
+                drained[stripe(productId)].signalAll();
+            }
+            return null;
+        });
+    }
+
+    // Com o lock do produto: esperar as baixas em andamento no banco terminarem
+    public void awaitNoPurchases(Long productId) {
+        checkHeld(productId);
+        while (pending(productId) > 0) {
+            drained[stripe(productId)].awaitUninterruptibly();
+        }
+    }
+
+    private void update(Long productId, int reservedDelta, int pendingDelta) {
+        counts.compute(productId, (id, current) -> {
+            Counts next = current != null ? current : new Counts();
+            next.reserved += reservedDelta;
+            next.pending += pendingDelta;
+            return next.reserved > 0 || next.pending > 0 ? next : null;
+        });
+    }
+
+    private void checkHeld(Long productId) {
+        if (!locks[stripe(productId)].isHeldByCurrentThread()) {
+            throw new IllegalStateException("Lock de estoque do produto " + productId + " não está com a thread");
+        }
+    }
+
+    private static int stripe(Long productId) {
+        return Math.floorMod(productId.hashCode(), STRIPES);
+    }
+
+    private static final class Counts {
+        volatile int reserved;
+        volatile int pending;
+    }
+}
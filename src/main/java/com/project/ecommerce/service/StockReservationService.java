@@ -0,0 +1,361 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.config.BackgroundThreads;
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.dto.ReservationDTO;
+import com.project.ecommerce.dto.StockAvailabilityDTO;
+import com.project.ecommerce.exception.InsufficientStockException;
+import com.project.ecommerce.tracing.Tracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.project.ecommerce.tracing.TraceCategory.CATALOG;
+import static com.project.ecommerce.tracing.TraceLevel.DEBUG;
+import static com.project.ecommerce.tracing.TraceLevel.ERROR;
+
+/**
+ * Reservas de estoque durante o checkout. Uma reserva retém unidades por um
+ * tempo limitado sem baixar o estoque; ao confirmar, a baixa é feita pelo
+ * caminho normal (venda relâmpago ou UPDATE condicional), e ao liberar ou
+ * expirar as unidades voltam a ficar disponíveis.
+ *
+ * Compras diretas também passam por aqui ({@link #purchase}). Com venda
+ * relâmpago aberta as reservas são tiradas do contador da venda, e a compra é
+ * um CAS nesse contador, sem lock. Sem venda, o retido é lido sob o lock curto
+ * do produto em {@link ProductStockLocks} e vai ao predicado do UPDATE
+ * condicional; a baixa no banco roda fora do lock, contada como "em
+ * andamento". Uma reserva só é admitida sem baixas em andamento: as que
+ * começaram antes dela levam um retido antigo no predicado e não a
+ * preservariam.
+ *
+ * As reservas ficam em memória: um mapa por id e um total retido por produto,
+ * de modo que consultar o disponível (estoque - retido) custa O(1) mesmo com
+ * centenas de milhares de reservas abertas. As expirações rodam numa
+ * {@link TimingWheel} avançada por uma única thread, sem uma tarefa agendada
+ * por reserva.
+ */
+@Service
+public class StockReservationService {
+
+    private static final int ACTIVE = 0;
+    private static final int CONFIRMED = 1;
+    private static final int RELEASED = 2;
+    private static final int EXPIRED = 3;
+    // Baixa em andamento: nem outra confirmação nem a expiração tocam a reserva
+    private static final int CONFIRMING = 4;
+
+    // Leituras do estoque fora do lock antes de esperar as baixas e ler dentro dele
+    private static final int OPTIMISTIC_ATTEMPTS = 3;
+
+    @Value("${stock-reservation.ttl-seconds:600}")
+    private long defaultTtlSeconds;
+
+    @Value("${stock-reservation.max-ttl-seconds:3600}")
+    private long maxTtlSeconds;
+
+    @Value("${stock-reservation.wheel.tick-ms:100}")
+    private long tickMillis;
+
+    @Value("${stock-reservation.wheel.buckets:1024}")
+    private int bucketCount;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private ProductStockLocks stockLocks;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    private TimingWheel<Reservation> wheel;
+    private ScheduledExecutorService ticker;
+    private Counter confirmedCounter;
+    private Counter releasedCounter;
+    private Counter expiredCounter;
+
+    @PostConstruct
+    void init() {
+        wheel = new TimingWheel<>(TimeUnit.MILLISECONDS.toNanos(tickMillis), bucketCount);
+
+        ticker = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("stock-reservation-expiry"));
+        ticker.scheduleAtFixedRate(this::expireDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("stock-reservation.active", reservations, Map::size)
+                .description("Reservas de estoque abertas")
+                .register(meterRegistry);
+        confirmedCounter = closedCounter("confirmed");
+        releasedCounter = closedCounter("released");
+        expiredCounter = closedCounter("expired");
+    }
+
+    private Counter closedCounter(String outcome) {
+        return Counter.builder("stock-reservation.closed")
+                .tag("outcome", outcome)
+                .description("Reservas encerradas")
+                .register(meterRegistry);
+    }
+
+    // Reservar unidades de um produto; ttlSeconds nulo usa o padrão
+    public ReservationDTO reserve(Long productId, int quantity, Long ttlSeconds, String owner) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantidade deve ser maior que zero");
+        }
+        long ttl = ttlSeconds != null ? ttlSeconds : defaultTtlSeconds;
+        if (ttl <= 0 || ttl > maxTtlSeconds) {
+            throw new IllegalArgumentException("Validade da reserva deve estar entre 1 e " + maxTtlSeconds + " segundos");
+        }
+
+        holdUnits(productId, quantity);
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), productId, quantity, owner,
+                LocalDateTime.now().plusSeconds(ttl), System.nanoTime() + TimeUnit.SECONDS.toNanos(ttl));
+        reservations.put(reservation.id, reservation);
+        wheel.schedule(reservation, reservation.deadlineNanos);
+
+        Tracer.event(CATALOG, DEBUG, "reservation.created", "productId", productId, "quantity", quantity);
+        return reservation.toDTO();
+    }
+
+    // Confirmar: baixa o estoque das unidades retidas e só então encerra a reserva.
+    // Se a baixa falha, a reserva continua ativa e retendo as unidades
+    public ProductDTO confirm(String reservationId, String owner) {
+        Reservation reservation = claim(reservationId, owner, CONFIRMING);
+        Long productId = reservation.productId;
+        int quantity = reservation.quantity;
+        ProductDTO product;
+        try {
+            while (true) {
+                product = stockLocks.withLock(productId, () -> {
+                    ProductDTO sold = flashSaleService.confirmHold(productId, quantity);
+                    if (sold != null) {
+                        stockLocks.addReserved(productId, -quantity);
+                    }
+                    return sold;
+                });
+                if (product != null) {
+                    break;
+                }
+                // As unidades desta reserva ainda contam no retido; só as dos outros são preservadas
+                Integer reserved = stockLocks.withLock(productId, () -> beginDatabaseSale(productId, quantity, quantity));
+                if (reserved != null) {
+                    product = finishDatabaseSale(productId, quantity, reserved, quantity);
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            reactivate(reservation);
+            throw e;
+        }
+
+        reservation.state.set(CONFIRMED);
+        reservations.remove(reservation.id, reservation);
+        confirmedCounter.increment();
+        return product;
+    }
+
+    // Compra sem reserva: as unidades retidas por reservas não podem ser vendidas
+    public ProductDTO purchase(Long productId, int quantity) {
+        while (true) {
+            ProductDTO product = flashSaleService.purchase(productId, quantity);
+            if (product != null) {
+                return product;
+            }
+            Integer reserved = stockLocks.withLock(productId, () -> beginDatabaseSale(productId, quantity, 0));
+            if (reserved != null) {
+                return finishDatabaseSale(productId, quantity, reserved, 0);
+            }
+        }
+    }
+
+    // Liberar as unidades sem comprar
+    public void release(String reservationId, String owner) {
+        Reservation reservation = claim(reservationId, owner, RELEASED);
+        reservations.remove(reservation.id, reservation);
+        unreserve(reservation);
+        releasedCounter.increment();
+    }
+
+    public StockAvailabilityDTO getAvailability(Long productId) {
+        int reserved = getReserved(productId);
+        Integer saleStock = flashSaleService.getStock(productId);
+        int stock = saleStock != null ? saleStock + reserved : productStock(productId);
+        return new StockAvailabilityDTO(productId, stock, reserved);
+    }
+
+    public int getReserved(Long productId) {
+        return stockLocks.reserved(productId);
+    }
+
+    // Reter unidades: no contador da venda aberta ou contra o estoque do produto, descontado
+    // o retido. Sem venda, só vale com nenhuma baixa em andamento: o estoque é lido fora do
+    // lock e aceito se nenhuma baixa começou ou terminou desde antes da leitura; depois de
+    // algumas tentativas a reserva espera as baixas terminarem e lê o estoque no lock
+    private void holdUnits(Long productId, int quantity) {
+        for (int attempt = 1; ; attempt++) {
+            boolean optimistic = attempt <= OPTIMISTIC_ATTEMPTS;
+            long stamp = stockLocks.purchaseStamp(productId);
+            int stockOutside = optimistic ? productStock(productId) : 0;
+            boolean held = stockLocks.withLock(productId, () -> {
+                if (!flashSaleService.hold(productId, quantity)) {
+                    int stock;
+                    if (optimistic) {
+                        if (stockLocks.pending(productId) > 0 || stockLocks.purchaseStamp(productId) != stamp) {
+                            return false;
+                        }
+                        stock = stockOutside;
+                    } else {
+                        stockLocks.awaitNoPurchases(productId);
+                        // A espera solta o lock: uma venda pode ter aberto nesse meio tempo
+                        if (flashSaleService.hold(productId, quantity)) {
+                            stockLocks.addReserved(productId, quantity);
+                            return true;
+                        }
+                        stock = productStock(productId);
+                    }
+                    if (stock - stockLocks.reserved(productId) < quantity) {
+                        throw new InsufficientStockException(productId, quantity);
+                    }
+                }
+                stockLocks.addReserved(productId, quantity);
+                return true;
+            });
+            if (held) {
+                return;
+            }
+        }
+    }
+
+    // Com o lock do produto: registrar a baixa no banco e devolver o retido que o UPDATE
+    // precisa preservar (menos ownHold, as unidades da própria reserva). null se uma venda
+    // relâmpago abriu entre a tentativa pelo contador e o lock
+    private Integer beginDatabaseSale(Long productId, int quantity, int ownHold) {
+        if (flashSaleService.isOpen(productId)) {
+            return null;
+        }
+        stockLocks.beginPurchase(productId, quantity);
+        return stockLocks.reserved(productId) - ownHold;
+    }
+
+    // Fora do lock: UPDATE condicional com o retido no predicado
+    private ProductDTO finishDatabaseSale(Long productId, int quantity, int reserved, int ownHold) {
+        boolean sold = false;
+        try {
+            ProductDTO product = productService.decrementStock(productId, quantity, reserved);
+            sold = true;
+            return product;
+        } finally {
+            stockLocks.endPurchase(productId, quantity, sold ? ownHold : 0);
+        }
+    }
+
+    private int productStock(Long productId) {
+        ProductDTO product = productService.getProductByID(productId)
+                .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + productId));
+        return product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+    }
+
+    private Reservation claim(String reservationId, String owner, int newState) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            throw new RuntimeException("Reserva não encontrada ou expirada: " + reservationId);
+        }
+        if (!reservation.owner.equals(owner)) {
+            throw new AccessDeniedException("Acesso negado: a reserva pertence a outro usuário");
+        }
+        if (!reservation.state.compareAndSet(ACTIVE, newState)) {
+            throw new RuntimeException("Reserva não encontrada ou expirada: " + reservationId);
+        }
+        return reservation;
+    }
+
+    // Devolver ao estado ativo depois de uma confirmação que falhou. A roda pode ter
+    // passado pelo prazo durante a baixa; nesse caso a reserva expira agora
+    private void reactivate(Reservation reservation) {
+        reservation.state.set(ACTIVE);
+        if (System.nanoTime() - reservation.deadlineNanos >= 0) {
+            expire(reservation);
+        }
+    }
+
+    // Devolver as unidades de uma reserva liberada ou expirada, ao contador da venda se aberta
+    private void unreserve(Reservation reservation) {
+        stockLocks.withLock(reservation.productId, () -> {
+            stockLocks.addReserved(reservation.productId, -reservation.quantity);
+            flashSaleService.unhold(reservation.productId, reservation.quantity);
+            return null;
+        });
+    }
+
+    private void expireDue() {
+        try {
+            // Confirmadas e liberadas continuam na roda até o prazo e são ignoradas em expire
+            wheel.advance(this::expire);
+        } catch (RuntimeException e) {
+            // Uma exceção cancelaria as execuções seguintes do agendamento
+            Tracer.event(CATALOG, ERROR, "reservation.expiry-failed", "error", e.getMessage());
+        }
+    }
+
+    private void expire(Reservation reservation) {
+        if (reservation.state.compareAndSet(ACTIVE, EXPIRED)) {
+            reservations.remove(reservation.id, reservation);
+            unreserve(reservation);
+            expiredCounter.increment();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private static final class Reservation {
+
+        final String id;
+        final Long productId;
+        final int quantity;
+        final String owner;
+        final LocalDateTime expiresAt;
+        // Prazo em System.nanoTime, o relógio da roda
+        final long deadlineNanos;
+        final AtomicInteger state = new AtomicInteger(ACTIVE);
+
+        Reservation(String id, Long productId, int quantity, String owner, LocalDateTime expiresAt,
+                    long deadlineNanos) {
+            this.id = id;
+            this.productId = productId;
+            this.quantity = quantity;
+            this.owner = owner;
+            this.expiresAt = expiresAt;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        ReservationDTO toDTO() {
+            return new ReservationDTO(id, productId, quantity, expiresAt);
+        }
+    }
+}
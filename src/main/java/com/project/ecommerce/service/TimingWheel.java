@@ -0,0 +1,96 @@
+package com.project.ecommerce.service;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Roda de temporização hash (hashed timing wheel) para expirações em massa.
+ * O tempo é dividido em ticks e cada item cai no balde (deadline em ticks
+ * módulo o número de baldes); a cada tick só o balde corrente é visitado, e
+ * itens que ainda têm voltas pela frente permanecem nele.
+ *
+ * Agendar é só um offer numa fila sem lock; os baldes pertencem à thread que
+ * chama {@link #advance}, que transfere os novos itens antes de cada tick.
+ * Não há cancelamento: quem recebe o item expirado decide se ele ainda vale.
+ */
+final class TimingWheel<T> {
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final Queue<Entry<T>>[] buckets;
+    private final int mask;
+    private final Queue<Entry<T>> incoming = new ConcurrentLinkedQueue<>();
+
+    // Último tick processado (só a thread de advance escreve)
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickNanos, int bucketCount) {
+        if (Integer.bitCount(bucketCount) != 1) {
+            throw new IllegalArgumentException("Número de baldes deve ser potência de 2");
+        }
+        this.tickNanos = tickNanos;
+        this.startNanos = System.nanoTime();
+        this.buckets = new Queue[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.mask = bucketCount - 1;
+    }
+
+    /**
+     * Agendar a expiração de um item (seguro para qualquer thread)
+     */
+    void schedule(T item, long deadlineNanos) {
+        incoming.offer(new Entry<>(item, deadlineNanos));
+    }
+
+    /**
+     * Processar os ticks vencidos até agora, entregando os itens expirados
+     */
+    void advance(Consumer<T> onExpire) {
+        long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            transferIncoming();
+
+            Queue<Entry<T>> bucket = buckets[(int) (currentTick & mask)];
+            for (int remaining = bucket.size(); remaining > 0; remaining--) {
+                Entry<T> entry = bucket.poll();
+                if (entry.deadlineTick <= currentTick) {
+                    onExpire.accept(entry.item);
+                } else {
+                    bucket.offer(entry);
+                }
+            }
+        }
+    }
+
+    private void transferIncoming() {
+        Entry<T> entry;
+        while ((entry = incoming.poll()) != null) {
+            // Nunca num tick já processado: o mínimo é o tick corrente, visitado a seguir
+            long tick = Math.max(currentTick, ceilDiv(entry.deadlineNanos - startNanos, tickNanos));
+            entry.deadlineTick = tick;
+            buckets[(int) (tick & mask)].offer(entry);
+        }
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        final long deadlineNanos;
+        long deadlineTick;
+
+        Entry(T item, long deadlineNanos) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.ecommerce.tracing;
+
+/**
+ * Categorias de eventos de rastreamento; cada uma tem nível e amostragem próprios
+ */
+public enum TraceCategory {
+    REQUEST,
+    SECURITY,
+    JWT,
+    AUTH,
+    STARTUP,
+    CATALOG
+}
@@ -0,0 +1,40 @@
+package com.project.ecommerce.tracing;
+
+/**
+ * Slot reutilizável do {@link TraceRingBuffer}: esquema fixo com até três
+ * pares chave/valor. Os valores só são formatados pela thread escritora.
+ */
+final class TraceEvent {
+
+    long timestamp;
+    String thread;
+    TraceCategory category;
+    TraceLevel level;
+    String event;
+    String key1;
+    Object value1;
+    String key2;
+    Object value2;
+    String key3;
+    Object value3;
+
+    void set(long timestamp, String thread, TraceCategory category, TraceLevel level, String event,
+             String key1, Object value1, String key2, Object value2, String key3, Object value3) {
+        this.timestamp = timestamp;
+        this.thread = thread;
+        this.category = category;
+        this.level = level;
+        this.event = event;
+        this.key1 = key1;
+        this.value1 = value1;
+        this.key2 = key2;
+        this.value2 = value2;
+        this.key3 = key3;
+        this.value3 = value3;
+    }
+
+    // Soltar as referências para não reter objetos da requisição
+    void clear() {
+        set(0L, null, null, null, null, null, null, null, null, null, null);
+    }
+}
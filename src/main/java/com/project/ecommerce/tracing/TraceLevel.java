@@ -0,0 +1,11 @@
+package com.project.ecommerce.tracing;
+
+/**
+ * Níveis de rastreamento, do mais severo ao mais detalhado
+ */
+public enum TraceLevel {
+    ERROR,
+    WARN,
+    INFO,
+    DEBUG
+}
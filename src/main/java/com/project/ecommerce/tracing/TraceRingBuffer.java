@@ -0,0 +1,90 @@
+package com.project.ecommerce.tracing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffer circular lock-free (múltiplos produtores, um consumidor) com slots
+ * pré-alocados de esquema fixo. Cada slot tem um número de sequência que
+ * indica se está livre para escrita ou publicado para leitura. Com o buffer
+ * cheio o evento é descartado e contado, nunca bloqueando a thread da requisição.
+ */
+public final class TraceRingBuffer {
+
+    private final TraceEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    // Lido e escrito apenas pela thread consumidora
+    private long consumerPosition;
+
+    public TraceRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1) << 1);
+        this.slots = new TraceEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new TraceEvent();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publicar um evento. Retorna false (e conta o descarte) se o buffer estiver cheio.
+     */
+    public boolean offer(long timestamp, String thread, TraceCategory category, TraceLevel level, String event,
+                         String key1, Object value1, String key2, Object value2, String key3, Object value3) {
+        long position;
+        int index;
+
+        while (true) {
+            position = producerPosition.get();
+            index = (int) (position & mask);
+            long sequence = sequences.get(index);
+            long difference = sequence - position;
+
+            if (difference == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+
+        slots[index].set(timestamp, thread, category, level, event, key1, value1, key2, value2, key3, value3);
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Consumir o próximo evento publicado, ou null se não houver nenhum.
+     * O slot retornado só é válido até a chamada de {@link #release}.
+     */
+    TraceEvent peek() {
+        int index = (int) (consumerPosition & mask);
+        return sequences.get(index) == consumerPosition + 1 ? slots[index] : null;
+    }
+
+    void release() {
+        int index = (int) (consumerPosition & mask);
+        slots[index].clear();
+        sequences.lazySet(index, consumerPosition + slots.length);
+        consumerPosition++;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,197 @@
+package com.project.ecommerce.tracing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Configura o {@link Tracer} a partir das propriedades "tracing.*" e mantém a
+ * thread de fundo que drena o {@link TraceRingBuffer} para um arquivo JSON
+ * (um evento por linha).
+ *
+ * Propriedades por categoria (request, security, jwt, auth, startup):
+ * tracing.level.&lt;categoria&gt; (OFF, ERROR, WARN, INFO, DEBUG) e
+ * tracing.sample.&lt;categoria&gt; (fração de 0.0 a 1.0 dos eventos mantidos).
+ */
+@Component
+public class TraceWriter {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Value("${tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracing.file:logs/trace.log}")
+    private String file;
+
+    @Value("${tracing.buffer-size:16384}")
+    private int bufferSize;
+
+    @Value("${tracing.level.default:INFO}")
+    private String defaultLevel;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TraceRingBuffer buffer;
+    private BufferedWriter writer;
+    private Thread drainThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            Tracer.disable();
+            return;
+        }
+
+        Path path = Path.of(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        buffer = new TraceRingBuffer(bufferSize);
+
+        TraceCategory[] categories = TraceCategory.values();
+        int[] thresholds = new int[categories.length];
+        int[] samplePermille = new int[categories.length];
+
+        for (TraceCategory category : categories) {
+            String name = category.name().toLowerCase(Locale.ROOT);
+            String level = environment.getProperty("tracing.level." + name, defaultLevel);
+            double sample = environment.getProperty("tracing.sample." + name, Double.class, 1.0);
+
+            thresholds[category.ordinal()] = "OFF".equalsIgnoreCase(level)
+                    ? -1
+                    : TraceLevel.valueOf(level.toUpperCase(Locale.ROOT)).ordinal();
+            samplePermille[category.ordinal()] = (int) Math.round(Math.max(0.0, Math.min(1.0, sample)) * 1000);
+        }
+
+        Gauge.builder("tracing.events.dropped", buffer, TraceRingBuffer::getDroppedCount)
+                .description("Eventos descartados com o buffer de rastreamento cheio")
+                .register(meterRegistry);
+
+        running = true;
+        drainThread = new Thread(this::drainLoop, "trace-writer");
+        drainThread.setDaemon(true);
+        drainThread.start();
+
+        Tracer.configure(buffer, thresholds, samplePermille);
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(256);
+
+        while (running) {
+            try {
+                if (drainAvailable(line) == 0) {
+                    writer.flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // Falha de I/O no arquivo de trace não pode derrubar a aplicação
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private int drainAvailable(StringBuilder line) throws IOException {
+        int drained = 0;
+        TraceEvent event;
+
+        while ((event = buffer.peek()) != null) {
+            line.setLength(0);
+            format(event, line);
+            buffer.release();
+            writer.append(line).append('\n');
+            drained++;
+        }
+
+        return drained;
+    }
+
+    private static void format(TraceEvent event, StringBuilder out) {
+        out.append("{\"ts\":\"").append(Instant.ofEpochMilli(event.timestamp)).append('"');
+        field(out, "thread", event.thread);
+        field(out, "cat", event.category.name());
+        field(out, "level", event.level.name());
+        field(out, "event", event.event);
+        if (event.key1 != null) {
+            field(out, event.key1, event.value1);
+        }
+        if (event.key2 != null) {
+            field(out, event.key2, event.value2);
+        }
+        if (event.key3 != null) {
+            field(out, event.key3, event.value3);
+        }
+        out.append('}');
+    }
+
+    private static void field(StringBuilder out, String key, Object value) {
+        out.append(",\"").append(key).append("\":");
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else {
+            out.append('"');
+            String text = String.valueOf(value);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '"' -> out.append("\\\"");
+                    case '\\' -> out.append("\\\\");
+                    case '\n' -> out.append("\\n");
+                    case '\r' -> out.append("\\r");
+                    case '\t' -> out.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                    }
+                }
+            }
+            out.append('"');
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException, IOException {
+        if (!running) {
+            return;
+        }
+
+        Tracer.disable();
+        running = false;
+        drainThread.join(TimeUnit.SECONDS.toMillis(2));
+
+        // Escrever o que sobrou no buffer antes de fechar
+        drainAvailable(new StringBuilder(256));
+        writer.close();
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.ecommerce.tracing;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fachada estática de rastreamento estruturado. Os eventos têm esquema fixo
+ * (categoria, nível, nome e até três pares chave/valor) e são publicados no
+ * {@link TraceRingBuffer} sem concatenação de strings nem locks; a escrita
+ * em arquivo fica com o {@link TraceWriter}.
+ *
+ * Antes de {@link #configure} ou com o rastreamento desligado, a checagem de
+ * nível é uma leitura de array e nada é publicado.
+ */
+public final class Tracer {
+
+    private static final int OFF = -1;
+
+    private static volatile Settings settings = Settings.disabled();
+
+    private Tracer() {
+    }
+
+    static void configure(TraceRingBuffer buffer, int[] thresholds, int[] samplePermille) {
+        settings = new Settings(buffer, thresholds.clone(), samplePermille.clone());
+    }
+
+    static void disable() {
+        settings = Settings.disabled();
+    }
+
+    /**
+     * Checagem barata de nível, para proteger trechos que preparam dados de debug
+     */
+    public static boolean isEnabled(TraceCategory category, TraceLevel level) {
+        return level.ordinal() <= settings.thresholds[category.ordinal()];
+    }
+
+    public static void event(TraceCategory category, TraceLevel level, String event) {
+        event(category, level, event, null, null, null, null, null, null);
+    }
+
+    public static void event(TraceCategory category, TraceLevel level, String event,
+                             String key1, Object value1) {
+        event(category, level, event, key1, value1, null, null, null, null);
+    }
+
+    public static void event(TraceCategory category, TraceLevel level, String event,
+                             String key1, Object value1, String key2, Object value2) {
+        event(category, level, event, key1, value1, key2, value2, null, null);
+    }
+
+    public static void event(TraceCategory category, TraceLevel level, String event,
+                             String key1, Object value1, String key2, Object value2, String key3, Object value3) {
+        Settings current = settings;
+        int categoryIndex = category.ordinal();
+
+        if (level.ordinal() > current.thresholds[categoryIndex]) {
+            return;
+        }
+
+        // Erros nunca são amostrados
+        int permille = current.samplePermille[categoryIndex];
+        if (level != TraceLevel.ERROR && permille < 1000
+                && ThreadLocalRandom.current().nextInt(1000) >= permille) {
+            return;
+        }
+
+        current.buffer.offer(System.currentTimeMillis(), Thread.currentThread().getName(),
+                category, level, event, key1, value1, key2, value2, key3, value3);
+    }
+
+    public static long getDroppedCount() {
+        TraceRingBuffer buffer = settings.buffer;
+        return buffer != null ? buffer.getDroppedCount() : 0L;
+    }
+
+    private static final class Settings {
+        private final TraceRingBuffer buffer;
+        private final int[] thresholds;
+        private final int[] samplePermille;
+
+        private Settings(TraceRingBuffer buffer, int[] thresholds, int[] samplePermille) {
+            this.buffer = buffer;
+            this.thresholds = thresholds;
+            this.samplePermille = samplePermille;
+        }
+
+        static Settings disabled() {
+            int[] thresholds = new int[TraceCategory.values().length];
+            Arrays.fill(thresholds, OFF);
+            return new Settings(null, thresholds, new int[thresholds.length]);
+        }
+    }
+}
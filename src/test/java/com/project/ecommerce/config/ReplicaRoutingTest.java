@@ -0,0 +1,155 @@
+package com.project.ecommerce.config;
+
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.dto.ProductSummaryDTO;
+import com.project.ecommerce.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dois H2 em memória fazendo papel de primário e réplica. Não há replicação:
+ * o teste copia o primário para a réplica quando quer, e assim enxerga em
+ * qual banco cada operação foi feita.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Replication replication;
+
+    private ProductDTO product;
+
+    @BeforeEach
+    void setUp() {
+        ProductDTO dto = new ProductDTO("Cafeteira", new BigDecimal("349.90"),
+                "https://example.com/cafeteira.jpg", "Cozinha", "Cafeteira elétrica");
+        dto.setStockQuantity(10);
+        product = productService.createProduct(dto);
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromReplica() {
+        // A escrita foi para o primário; a réplica ainda não tem o produto
+        assertFalse(listedIds().contains(product.getId()));
+
+        replication.sync();
+
+        assertTrue(listedIds().contains(product.getId()));
+    }
+
+    @Test
+    void productByIdAndLastModifiedReadFromPrimary() {
+        // Sem sincronizar: a réplica não tem o produto, o primário tem
+        ProductDTO fromPrimary = productService.getProductByID(product.getId()).orElseThrow();
+        assertEquals("Cafeteira", fromPrimary.getName());
+        assertNotNull(fromPrimary.getLastModified());
+    }
+
+    @Test
+    void cacheIsNotRefilledFromLaggingReplica() {
+        replication.sync();
+        assertEquals(10, productService.getProductByID(product.getId()).orElseThrow().getStockQuantity());
+        Instant before = productService.getProductByID(product.getId()).orElseThrow().getLastModified();
+
+        // A escrita invalida o cache após o commit; a réplica segue com o estoque antigo
+        productService.updateStock(product.getId(), 4);
+        assertEquals(4, productService.getProductByID(product.getId()).orElseThrow().getStockQuantity());
+        assertTrue(productService.getProductByID(product.getId()).orElseThrow().getLastModified().isAfter(before));
+
+        // Depois da sincronização o cache continua com o valor novo
+        replication.sync();
+        assertEquals(4, productService.getProductByID(product.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void readsInsideWriteTransactionUsePrimary() {
+        // decrementStock relê o produto na própria transação, que é de escrita
+        ProductDTO afterSale = productService.decrementStock(product.getId(), 3);
+        assertEquals(7, afterSale.getStockQuantity());
+
+        replication.sync();
+        assertEquals(7, productService.getProductByID(product.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void connectionsAreCountedPerRoute() {
+        double primaryBefore = connections("primary");
+        double replicaBefore = connections("replica");
+
+        productService.searchProducts("Cozinha", null, null, null, null, 0, 10);
+        assertEquals(primaryBefore, connections("primary"));
+        assertEquals(replicaBefore + 1, connections("replica"));
+
+        productService.updateStock(product.getId(), 5);
+        assertEquals(primaryBefore + 1, connections("primary"));
+        assertEquals(replicaBefore + 1, connections("replica"));
+    }
+
+    private List<Long> listedIds() {
+        return productService.getAllProductSummaries().stream()
+                .map(ProductSummaryDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    private double connections(String route) {
+        return meterRegistry.get("datasource.connections").tag("route", route).counter().count();
+    }
+
+    /**
+     * Cópia do primário para a réplica (SCRIPT do H2). A primeira cópia cria o
+     * esquema antes dos CommandLineRunner e do ApplicationReadyEvent, que já
+     * leem da réplica.
+     */
+    @TestConfiguration
+    static class Replication {
+
+        private final JdbcTemplate primary;
+        private final JdbcTemplate replica;
+
+        Replication(@Qualifier("primaryDataSource") DataSource primary,
+                    @Qualifier("replicaDataSource") DataSource replica) {
+            this.primary = new JdbcTemplate(primary);
+            this.replica = new JdbcTemplate(replica);
+        }
+
+        @EventListener(ContextRefreshedEvent.class)
+        void createReplicaSchema() {
+            sync();
+        }
+
+        void sync() {
+            List<String> statements = primary.queryForList("SCRIPT", String.class);
+            replica.execute("DROP ALL OBJECTS");
+            replica.batchUpdate(statements.toArray(new String[0]));
+        }
+    }
+}
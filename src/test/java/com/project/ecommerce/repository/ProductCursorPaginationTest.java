@@ -0,0 +1,108 @@
+package com.project.ecommerce.repository;
+
+import com.project.ecommerce.dto.CursorPageDTO;
+import com.project.ecommerce.dto.ProductSummaryDTO;
+import com.project.ecommerce.entity.Product;
+import com.project.ecommerce.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Paginação por keyset com muitos empates no campo de ordenação: o id desempata,
+ * então cada produto aparece exatamente uma vez ao percorrer todas as páginas.
+ */
+@DataJpaTest
+class ProductCursorPaginationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private List<Product> catalog;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            // Três preços e dois nomes para 11 produtos
+            products.add(product(i % 2 == 0 ? "Caneca" : "Copo", i % 3 == 0 ? "19.90" : i % 3 == 1 ? "29.90" : "39.90"));
+        }
+        catalog = productRepository.saveAllAndFlush(products);
+    }
+
+    @Test
+    void tiesOnPriceAreBrokenById() {
+        assertEquals(expected(Comparator.comparing(Product::getPrice).thenComparing(Product::getId)),
+                walk(ProductCursor.first("price", false), 2));
+        assertEquals(expected(Comparator.comparing(Product::getPrice).thenComparing(Product::getId).reversed()),
+                walk(ProductCursor.first("price", true), 3));
+    }
+
+    @Test
+    void tiesOnNameAreBrokenById() {
+        assertEquals(expected(Comparator.comparing(Product::getName).thenComparing(Product::getId)),
+                walk(ProductCursor.first("name", false), 4));
+        assertEquals(expected(Comparator.comparing(Product::getName).thenComparing(Product::getId).reversed()),
+                walk(ProductCursor.first("name", true), 1));
+    }
+
+    @Test
+    void pageSizeOutsideBoundsIsRejected() {
+        // A IllegalArgumentException chega traduzida pelo proxy do repositório
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> productRepository.findPageAfterCursor(
+                ProductCursor.first("name", false), null, null, null, null, null, null, 0));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> productRepository.findPageAfterCursor(
+                ProductCursor.first("name", false), null, null, null, null, null, null, -1));
+
+        assertThrows(IllegalArgumentException.class, () -> ProductService.checkPageSize(0));
+        assertThrows(IllegalArgumentException.class, () -> ProductService.checkPageSize(-5));
+        assertThrows(IllegalArgumentException.class, () -> ProductService.checkPageSize(ProductService.MAX_PAGE_SIZE + 1));
+        ProductService.checkPageSize(1);
+        ProductService.checkPageSize(ProductService.MAX_PAGE_SIZE);
+    }
+
+    // Percorre todas as páginas seguindo nextCursor, como faria o cliente
+    private List<Long> walk(ProductCursor first, int size) {
+        List<Long> ids = new ArrayList<>();
+        CursorPageDTO<ProductSummaryDTO> page = productRepository.findPageAfterCursor(
+                first, null, null, null, null, null, null, size);
+        while (true) {
+            page.getContent().forEach(product -> ids.add(product.getId()));
+            if (!page.isHasNext()) {
+                break;
+            }
+            assertEquals(size, page.getContent().size());
+            assertFalse(ids.size() > catalog.size(), "páginas repetidas");
+            page = productRepository.findPageAfterCursor(
+                    ProductCursor.decode(page.getNextCursor()), null, null, null, null, null, null, size);
+        }
+        return ids;
+    }
+
+    private List<Long> expected(Comparator<Product> order) {
+        return catalog.stream().sorted(order).map(Product::getId).collect(Collectors.toList());
+    }
+
+    private static Product product(String name, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setImage("https://example.com/" + name + ".jpg");
+        product.setCategory("Cozinha");
+        product.setInStock(true);
+        product.setStockQuantity(1);
+        return product;
+    }
+}
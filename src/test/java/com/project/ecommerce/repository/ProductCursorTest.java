@@ -0,0 +1,89 @@
+package com.project.ecommerce.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductCursorTest {
+
+    @Test
+    void roundTripKeepsSortValueTypeAndPosition() {
+        assertRoundTrip(ProductCursor.first("name", false).after("Camisa Polo", 12L));
+        assertRoundTrip(ProductCursor.first("price", true).after(new BigDecimal("89.90"), 7L));
+        assertRoundTrip(ProductCursor.first("rating", false).after(4.5, 3L));
+        assertRoundTrip(ProductCursor.first("createdAt", true).after(LocalDateTime.of(2026, 3, 1, 10, 15, 30, 123_456_000), 99L));
+        assertRoundTrip(ProductCursor.first("id", false).after(42L, 42L));
+    }
+
+    @Test
+    void roundTripKeepsUnicodeAndSeparatorsInNames() {
+        assertRoundTrip(ProductCursor.first("name", false).after("Tênis \"Edição\" Ação, 50% – 日本", 1L));
+    }
+
+    @Test
+    void firstPageHasNoPosition() {
+        ProductCursor first = ProductCursor.first("price", true);
+
+        assertTrue(first.isFirst());
+        assertFalse(first.after(BigDecimal.TEN, 1L).isFirst());
+    }
+
+    @Test
+    void unknownSortKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.first("description", false));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.first("name; DROP TABLE products", false));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(token(1, "description", false, "x", 1L)));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(token(1, "p.name", false, "x", 1L)));
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        String valid = ProductCursor.first("price", false).after(new BigDecimal("89.90"), 7L).encode();
+
+        // Versão desconhecida, valor que não é do tipo do campo, bytes a mais e a menos
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(token(2, "price", false, "89.90", 7L)));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(token(1, "price", false, "caro", 7L)));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(token(1, "createdAt", false, "ontem", 7L)));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(valid + "AAAA"));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(valid.substring(0, valid.length() - 4)));
+        // Não é base64 URL-safe
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode("não é um cursor"));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(valid.replace('-', '+') + "/"));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(""));
+    }
+
+    private static void assertRoundTrip(ProductCursor cursor) {
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+        assertEquals(cursor.getSortBy(), decoded.getSortBy());
+        assertEquals(cursor.isDescending(), decoded.isDescending());
+        assertEquals(cursor.getLastValue(), decoded.getLastValue());
+        assertEquals(cursor.getLastValue().getClass(), decoded.getLastValue().getClass());
+        assertEquals(cursor.getLastId(), decoded.getLastId());
+    }
+
+    // Token montado à mão no mesmo formato do ProductCursor.encode
+    private static String token(int version, String sortBy, boolean descending, String value, long lastId) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(version);
+            out.writeUTF(sortBy);
+            out.writeBoolean(descending);
+            out.writeUTF(value);
+            out.writeLong(lastId);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+}
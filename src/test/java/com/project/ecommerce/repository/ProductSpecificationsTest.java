@@ -0,0 +1,148 @@
+package com.project.ecommerce.repository;
+
+import com.project.ecommerce.dto.ProductSummaryDTO;
+import com.project.ecommerce.entity.Product;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.project.ecommerce.repository.ProductSpecificationsTest$SqlCapture")
+class ProductSpecificationsTest {
+
+    private static final String CATEGORY = "Roupas";
+    private static final BigDecimal MIN_PRICE = new BigDecimal("20.00");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("150.00");
+    private static final String NAME = "camis";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private List<Product> catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = productRepository.saveAllAndFlush(List.of(
+                product("Camiseta Azul", "49.90", "Roupas", true),
+                product("Camisa Social", "159.90", "Roupas", true),
+                product("Calça Jeans", "129.90", "Roupas", false),
+                product("Camisa Polo", "89.90", "Roupas", false),
+                product("Tênis Corrida", "299.90", "Calçados", true),
+                product("Meia Camisinha", "9.90", "Calçados", true),
+                product("Fone Bluetooth", "99.90", "Eletrônicos", true)));
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    // Todas as 32 combinações de filtros presentes/ausentes
+    static Stream<Arguments> filterCombinations() {
+        return IntStream.range(0, 32).mapToObj(mask -> Arguments.of(
+                (mask & 1) != 0 ? CATEGORY : null,
+                (mask & 2) != 0 ? Boolean.TRUE : null,
+                (mask & 4) != 0 ? MIN_PRICE : null,
+                (mask & 8) != 0 ? MAX_PRICE : null,
+                (mask & 16) != 0 ? NAME : null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("filterCombinations")
+    void generatesSqlWithOnlyTheSuppliedFilters(String category, Boolean inStock,
+                                                 BigDecimal minPrice, BigDecimal maxPrice, String name) {
+        Page<ProductSummaryDTO> page = productRepository.findSummaries(
+                ProductSpecifications.withFilters(category, inStock, minPrice, maxPrice, name),
+                PageRequest.of(0, 100, Sort.by("name")));
+
+        // Página incompleta: o total sai da própria página, sem COUNT
+        assertEquals(1, SqlCapture.STATEMENTS.size(), SqlCapture.STATEMENTS::toString);
+        String sql = SqlCapture.STATEMENTS.get(0).toLowerCase(Locale.ROOT);
+
+        assertFalse(sql.contains("is null"), sql);
+        assertFalse(sql.contains("description"), sql);
+        assertEquals(category != null, sql.contains("category=?"), sql);
+        assertEquals(inStock != null, sql.contains("in_stock=?"), sql);
+        assertEquals(minPrice != null, sql.contains("price>=?"), sql);
+        assertEquals(maxPrice != null, sql.contains("price<=?"), sql);
+        assertEquals(name != null, sql.contains(" like "), sql);
+        assertEquals(category != null || inStock != null || minPrice != null || maxPrice != null || name != null,
+                sql.contains(" where "), sql);
+        assertTrue(sql.contains(" order by "), sql);
+
+        List<Long> expected = catalog.stream()
+                .filter(p -> category == null || p.getCategory().equals(category))
+                .filter(p -> inStock == null || p.getInStock().equals(inStock))
+                .filter(p -> minPrice == null || p.getPrice().compareTo(minPrice) >= 0)
+                .filter(p -> maxPrice == null || p.getPrice().compareTo(maxPrice) <= 0)
+                .filter(p -> name == null || p.getName().toLowerCase(Locale.ROOT).contains(name))
+                .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                .map(Product::getId)
+                .toList();
+        assertEquals(expected, page.getContent().stream().map(ProductSummaryDTO::getId).toList());
+        assertEquals(expected.size(), page.getTotalElements());
+    }
+
+    @Test
+    void countsOnlyWhenThePageIsFull() {
+        Page<ProductSummaryDTO> page = productRepository.findSummaries(
+                ProductSpecifications.withFilters(CATEGORY, null, null, null, null),
+                PageRequest.of(0, 2, Sort.by("name")));
+
+        assertEquals(2, SqlCapture.STATEMENTS.size(), SqlCapture.STATEMENTS::toString);
+        String count = SqlCapture.STATEMENTS.get(1).toLowerCase(Locale.ROOT);
+        assertTrue(count.startsWith("select count("), count);
+        assertTrue(count.contains("category=?") && !count.contains("is null"), count);
+        assertEquals(4, page.getTotalElements());
+    }
+
+    @Test
+    void restrictsIndexCandidatesById() {
+        List<Long> candidates = List.of(catalog.get(0).getId(), catalog.get(2).getId(), catalog.get(4).getId());
+
+        List<Long> ids = productRepository.findIds(
+                ProductSpecifications.withFilters(null, true, null, null, null)
+                        .and(ProductSpecifications.idIn(candidates)));
+
+        String sql = SqlCapture.STATEMENTS.get(0).toLowerCase(Locale.ROOT);
+        assertTrue(sql.startsWith("select p1_0.id from products"), sql);
+        assertTrue(sql.contains("in_stock=?") && sql.contains(".id in ("), sql);
+        assertFalse(sql.contains("is null"), sql);
+        assertEquals(List.of(catalog.get(0).getId(), catalog.get(4).getId()), ids.stream().sorted().toList());
+    }
+
+    private static Product product(String name, String price, String category, boolean inStock) {
+        Product product = new Product(name, new BigDecimal(price), "https://img/produto.png", category, "Descrição");
+        product.setInStock(inStock);
+        return product;
+    }
+
+    /**
+     * Registra o SQL gerado pelo Hibernate para as asserções
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.ecommerce.repository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Filtro de IDs candidatos da API reativa: com blocos de 3 IDs, a resposta
+ * precisa ser a mesma de um único IN com todos eles.
+ */
+class ReactiveProductRepositoryTest {
+
+    private DatabaseClient databaseClient;
+
+    private ReactiveProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = DatabaseClient.create(
+                ConnectionFactories.get("r2dbc:h2:mem:///reactive-products;DB_CLOSE_DELAY=-1"));
+        databaseClient.sql("DROP TABLE IF EXISTS products").then().block();
+        databaseClient.sql("CREATE TABLE products (id BIGINT PRIMARY KEY, category VARCHAR(50), "
+                + "in_stock BOOLEAN, price DECIMAL(10, 2))").then().block();
+        for (long id = 1; id <= 10; id++) {
+            databaseClient.sql("INSERT INTO products VALUES (:id, :category, :inStock, :price)")
+                    .bind("id", id)
+                    .bind("category", id % 2 == 0 ? "Cozinha" : "Camping")
+                    .bind("inStock", id != 4)
+                    .bind("price", new BigDecimal(id * 10))
+                    .then()
+                    .block();
+        }
+
+        repository = new ReactiveProductRepository();
+        ReflectionTestUtils.setField(repository, "databaseClient", databaseClient);
+        ReflectionTestUtils.setField(repository, "idChunkSize", 3);
+    }
+
+    @Test
+    void filtersEveryChunkOfCandidates() {
+        List<Long> candidates = LongStream.of(9, 2, 7, 4, 10, 6, 1, 8).boxed().collect(Collectors.toList());
+
+        Set<Long> found = repository.findIdsIn(candidates, "Cozinha", true, new BigDecimal("30"), null)
+                .collect(Collectors.toSet())
+                .block();
+
+        assertEquals(Set.of(6L, 8L, 10L), found);
+    }
+
+    @Test
+    void emptyCandidatesGiveNoIds() {
+        List<Long> found = repository.findIdsIn(List.of(), "Cozinha", null, null, null)
+                .collectList()
+                .block();
+
+        assertTrue(found.isEmpty());
+    }
+}
@@ -0,0 +1,191 @@
+package com.project.ecommerce.search;
+
+import com.project.ecommerce.entity.Product;
+import com.project.ecommerce.repository.ProductRepository;
+import com.project.ecommerce.repository.ProductSpecifications;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Motor colunar contra a busca por Specification no banco: mesmos filtros,
+ * mesmas páginas, mesmos IDs e totais. Com 80 produtos a página sai da
+ * ordem por nome quando o resultado tem 10 linhas ou mais, e da ordenação do
+ * resultado abaixo disso; os filtros cobrem os dois casos.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:column-store;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "catalog.columnar.enabled=true"
+})
+class ProductColumnStoreTest {
+
+    private static final String[] NAMES = {"Barraca", "Lanterna", "Cantil", "Fogareiro", "Mochila",
+            "Panela", "Faca", "Isqueiro", "Colchonete", "Bússola"};
+
+    @Autowired
+    private ProductColumnStore columnStore;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        List<Product> catalog = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            // Nomes repetidos: o desempate por id precisa ser o mesmo do banco
+            String category = i % 27 == 5 ? "Raro" : i % 2 == 0 ? "Cozinha" : "Camping";
+            Product product = new Product(NAMES[i % NAMES.length] + " " + (i % 4),
+                    BigDecimal.valueOf(1000 + (i * 137) % 9000, 2), "https://example.com/" + i + ".jpg",
+                    category, "Produto " + i);
+            product.setInStock(i % 3 != 0);
+            catalog.add(product);
+        }
+        productRepository.saveAll(catalog);
+        columnStore.rebuild();
+    }
+
+    @Test
+    void pagesAndTotalsMatchTheDatabase() {
+        assertSameAsDatabase(null, null, null, null);
+        assertSameAsDatabase("Cozinha", null, null, null);
+        assertSameAsDatabase(null, true, null, null);
+        assertSameAsDatabase(null, false, null, null);
+        assertSameAsDatabase("Raro", null, null, null);
+        assertSameAsDatabase("Camping", false, new BigDecimal("20"), new BigDecimal("60"));
+        assertSameAsDatabase(null, null, new BigDecimal("19.995"), new BigDecimal("50.001"));
+        assertSameAsDatabase("Cozinha", true, null, new BigDecimal("30"));
+        assertSameAsDatabase(null, true, new BigDecimal("90"), null);
+        assertSameAsDatabase("Inexistente", null, null, null);
+        assertSameAsDatabase(null, null, new BigDecimal("60"), new BigDecimal("20"));
+    }
+
+    @Test
+    void incrementalWritesMatchTheDatabase() {
+        List<Product> products = productRepository.findAll(Sort.by("id"));
+
+        Product renamed = products.get(3);
+        renamed.setName("Abridor");
+        renamed.setCategory("Raro");
+        renamed.setPrice(new BigDecimal("15.50"));
+        columnStore.index(productRepository.saveAndFlush(renamed));
+
+        Product soldOut = products.get(4);
+        soldOut.setInStock(false);
+        soldOut = productRepository.saveAndFlush(soldOut);
+        columnStore.updateInStock(soldOut.getId(), soldOut.getVersion(), false);
+
+        productRepository.delete(products.get(5));
+        columnStore.remove(products.get(5).getId());
+
+        assertSameAsDatabase(null, null, null, null);
+        assertSameAsDatabase("Raro", null, null, null);
+        assertSameAsDatabase(null, false, null, null);
+        assertSameAsDatabase(null, null, new BigDecimal("15.50"), new BigDecimal("15.50"));
+    }
+
+    @Test
+    void olderVersionsDoNotOverwriteNewerOnes() {
+        ProductColumnStore store = detachedStore(List.of(product(1L, 2L, "Cantil", "Camping", "30.00", true)));
+        store.rebuild();
+
+        // Atualização atrasada (versão 1) chega depois da versão 2
+        store.index(product(1L, 1L, "Cantil", "Cozinha", "10.00", false));
+        store.updateInStock(1L, 1L, false);
+        assertEquals(List.of(1L), ids(store, "Camping", true, new BigDecimal("30"), new BigDecimal("30")));
+
+        store.updateInStock(1L, 3L, false);
+        assertEquals(List.of(1L), ids(store, "Camping", false, null, null));
+
+        store.index(product(1L, 4L, "Cantil", "Cozinha", "12.00", true));
+        assertEquals(List.of(), ids(store, "Camping", null, null, null));
+        assertEquals(List.of(1L), ids(store, "Cozinha", true, new BigDecimal("12"), new BigDecimal("12")));
+    }
+
+    @Test
+    void writesDuringRebuildOverrideTheSnapshot() {
+        List<Product> snapshot = List.of(
+                product(1L, 1L, "Barraca", "Camping", "300.00", true),
+                product(2L, 1L, "Cantil", "Camping", "30.00", true),
+                product(4L, 1L, "Fogareiro", "Camping", "120.00", true));
+        ProductColumnStore store = detachedStore(snapshot);
+        ProductRepository repository = (ProductRepository) ReflectionTestUtils.getField(store, "productRepository");
+
+        when(repository.streamAll()).thenAnswer(invocation -> {
+            // Commits posteriores ao snapshot: exclusão, alteração, criação e baixa de estoque
+            store.remove(1L);
+            store.index(product(2L, 2L, "Cantil", "Cozinha", "35.00", true));
+            store.index(product(3L, 1L, "Apito", "Camping", "9.90", true));
+            store.updateInStock(4L, 2L, false);
+            return snapshot.stream();
+        });
+
+        store.rebuild();
+
+        assertEquals(List.of(3L, 2L, 4L), ids(store, null, null, null, null));
+        assertEquals(List.of(3L, 4L), ids(store, "Camping", null, null, null));
+        assertEquals(List.of(2L), ids(store, null, null, new BigDecimal("35"), new BigDecimal("35")));
+        assertEquals(List.of(4L), ids(store, null, false, null, null));
+    }
+
+    // Percorrer as páginas (de 7) até uma além do total, comparando IDs e total
+    private void assertSameAsDatabase(String category, Boolean inStock, BigDecimal minPrice, BigDecimal maxPrice) {
+        String filters = Arrays.asList(category, inStock, minPrice, maxPrice).toString();
+        for (int page = 0; ; page++) {
+            Page<Product> expected = productRepository.findAll(
+                    ProductSpecifications.withFilters(category, inStock, minPrice, maxPrice, null),
+                    PageRequest.of(page, 7, Sort.by("name", "id")));
+            Page<Long> actual = columnStore.search(category, inStock, minPrice, maxPrice, PageRequest.of(page, 7));
+
+            assertEquals(expected.getTotalElements(), actual.getTotalElements(), filters);
+            assertEquals(expected.getContent().stream().map(Product::getId).toList(), actual.getContent(),
+                    filters + " página " + page);
+            if (expected.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private static List<Long> ids(ProductColumnStore store, String category, Boolean inStock,
+                                  BigDecimal minPrice, BigDecimal maxPrice) {
+        return store.search(category, inStock, minPrice, maxPrice, PageRequest.of(0, 20)).getContent();
+    }
+
+    private static ProductColumnStore detachedStore(List<Product> snapshot) {
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.streamAll()).thenAnswer(invocation -> snapshot.stream());
+        ProductColumnStore store = new ProductColumnStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "productRepository", repository);
+        ReflectionTestUtils.setField(store, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(store, "entityManager", mock(EntityManager.class));
+        return store;
+    }
+
+    private static Product product(Long id, Long version, String name, String category, String price,
+                                   boolean inStock) {
+        Product product = new Product(name, new BigDecimal(price), "https://example.com/" + id + ".jpg",
+                category, "Camping");
+        product.setId(id);
+        product.setVersion(version);
+        product.setInStock(inStock);
+        return product;
+    }
+}
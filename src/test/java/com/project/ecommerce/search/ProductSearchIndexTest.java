@@ -0,0 +1,80 @@
+package com.project.ecommerce.search;
+
+import com.project.ecommerce.entity.Product;
+import com.project.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Escritas que chegam entre a leitura do snapshot e a troca do índice num
+ * rebuild. O repositório simulado aplica as escritas dentro do findAll, ou
+ * seja, depois que o snapshot foi lido e antes de o índice ser refeito.
+ */
+class ProductSearchIndexTest {
+
+    private ProductRepository productRepository;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        index = new ProductSearchIndex();
+        ReflectionTestUtils.setField(index, "productRepository", productRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", mock(PlatformTransactionManager.class));
+        index.init();
+    }
+
+    @Test
+    void writesDuringRebuildOverrideTheSnapshot() {
+        Product cafeteira = product(1L, "Cafeteira Elétrica");
+        Product chaleira = product(2L, "Chaleira Inox");
+        Product renamed = product(2L, "Torradeira Inox");
+        Product liquidificador = product(3L, "Liquidificador");
+
+        when(productRepository.findAll()).thenAnswer(invocation -> {
+            List<Product> snapshot = List.of(cafeteira, chaleira);
+            // Commits posteriores ao snapshot: exclusão, alteração e criação
+            index.remove(1L);
+            index.index(renamed);
+            index.index(liquidificador);
+            return snapshot;
+        });
+
+        index.rebuild();
+
+        assertArrayEquals(new long[0], index.search("cafeteira"));
+        assertArrayEquals(new long[0], index.search("chaleira"));
+        assertArrayEquals(new long[]{2L}, index.search("torradeira"));
+        assertArrayEquals(new long[]{3L}, index.search("liquidificador"));
+    }
+
+    @Test
+    void writesAfterRebuildAreNotReplayedByTheNextOne() {
+        Product cafeteira = product(1L, "Cafeteira Elétrica");
+        when(productRepository.findAll()).thenReturn(List.of(cafeteira));
+        index.rebuild();
+
+        // Removido do banco depois do primeiro rebuild; o segundo snapshot já não o traz
+        index.remove(1L);
+        when(productRepository.findAll()).thenReturn(List.of());
+        index.rebuild();
+
+        assertArrayEquals(new long[0], index.search("cafeteira"));
+    }
+
+    private static Product product(Long id, String name) {
+        Product product = new Product(name, new BigDecimal("99.90"), "https://example.com/" + id + ".jpg",
+                "Cozinha", "Eletroportátil");
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,106 @@
+package com.project.ecommerce.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtClaimsCacheTest {
+
+    private static final int MAX_SIZE = 16;
+
+    private JwtClaimsCache cache;
+    private AtomicInteger verifications;
+
+    @BeforeEach
+    void setUp() {
+        cache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(cache, "maxSize", (long) MAX_SIZE);
+        cache.init();
+        verifications = new AtomicInteger();
+    }
+
+    @Test
+    void verifiesOnlyOnFirstAccess() {
+        Function<String, VerifiedClaims> verifier = verifierExpiringIn(60_000);
+
+        VerifiedClaims first = cache.get("header.payload.signature", verifier);
+        VerifiedClaims second = cache.get("header.payload.signature", verifier);
+
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void entryExpiresAtTokenExpiration() throws InterruptedException {
+        Function<String, VerifiedClaims> verifier = verifierExpiringIn(300);
+
+        cache.get("header.payload.signature", verifier);
+        cache.get("header.payload.signature", verifier);
+        assertEquals(1, verifications.get());
+
+        Thread.sleep(500);
+
+        cache.get("header.payload.signature", verifier);
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNeverServedFromCache() {
+        Function<String, VerifiedClaims> verifier = verifierExpiringIn(-1_000);
+
+        cache.get("header.payload.signature", verifier);
+        cache.get("header.payload.signature", verifier);
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void oneChangedByteMissesTheCache() {
+        Function<String, VerifiedClaims> verifier = verifierExpiringIn(60_000);
+
+        cache.get("header.payload.signaturA", verifier);
+        cache.get("header.payload.signaturB", verifier);
+
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void sizeStaysWithinLimit() {
+        Function<String, VerifiedClaims> verifier = verifierExpiringIn(60_000);
+
+        for (int i = 0; i < MAX_SIZE * 10; i++) {
+            cache.get("header.payload." + i, verifier);
+        }
+
+        assertTrue(cache.size() <= MAX_SIZE, "tamanho " + cache.size());
+    }
+
+    @Test
+    void invalidateAllForcesNewVerification() {
+        Function<String, VerifiedClaims> verifier = verifierExpiringIn(60_000);
+
+        cache.get("header.payload.signature", verifier);
+        cache.invalidateAll();
+        cache.get("header.payload.signature", verifier);
+
+        assertEquals(2, verifications.get());
+    }
+
+    // Verificador simulado: conta as chamadas e devolve claims com o "exp" informado
+    private Function<String, VerifiedClaims> verifierExpiringIn(long millis) {
+        return token -> {
+            verifications.incrementAndGet();
+            long now = System.currentTimeMillis();
+            return new VerifiedClaims(token, "USER", "ecommerce-app", now, now + millis);
+        };
+    }
+}
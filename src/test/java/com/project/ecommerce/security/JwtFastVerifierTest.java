@@ -0,0 +1,286 @@
+package com.project.ecommerce.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Caminho rápido comparado com o jjwt. Tokens fora do formato emitido por
+ * JwtUtil.generateToken precisam resultar em null (o chamador usa o jjwt),
+ * nunca em claims diferentes das que o jjwt devolveria.
+ */
+class JwtFastVerifierTest {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationThatNeedsToBeAtLeast256BitsLongForHS512Algorithm";
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private JwtKeyRing keyRing;
+    private JwtFastVerifier fastVerifier;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        JwtClaimsCache claimsCache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(claimsCache, "maxSize", 100L);
+        claimsCache.init();
+
+        keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "secret", SECRET);
+        ReflectionTestUtils.setField(keyRing, "previousSecrets", List.of());
+        ReflectionTestUtils.setField(keyRing, "jwtExpiration", 86400);
+        ReflectionTestUtils.setField(keyRing, "claimsCache", claimsCache);
+        keyRing.init();
+
+        fastVerifier = new JwtFastVerifier();
+        ReflectionTestUtils.setField(fastVerifier, "keyRing", keyRing);
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 86400);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCache", claimsCache);
+        ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "fastVerifier", fastVerifier);
+    }
+
+    @Test
+    void validTokensMatchJjwt() {
+        for (String[] user : new String[][]{
+                {"admin@ecommerce.com", "ADMIN"},
+                {"cliente@ecommerce.com", "USER"},
+                {"joão.silva+compras@exemplo.com.br", "USER"}}) {
+            String token = jwtUtil.generateToken(user[0], user[1]);
+
+            VerifiedClaims fast = fastVerifier.verify(token);
+            Claims jjwt = keyRing.getParser().parseClaimsJws(token).getBody();
+
+            assertNotNull(fast, "caminho rápido recusou " + user[0]);
+            assertEquals(jjwt.getSubject(), fast.getSubject());
+            assertEquals(jjwt.get("role", String.class), fast.getRole());
+            assertEquals(jjwt.getIssuer(), fast.getIssuer());
+            assertEquals(jjwt.getIssuedAt(), fast.getIssuedAt());
+            assertEquals(jjwt.getExpiration(), fast.getExpiration());
+        }
+    }
+
+    @Test
+    void handWrittenTokenInSupportedFormatIsAccepted() {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        String token = sign(header(), " { \"sub\" : \"a@b.com\" , \"role\":\"USER\", \"iat\":1700000000, \"exp\":" + exp + " } ");
+
+        VerifiedClaims claims = fastVerifier.verify(token);
+
+        assertNotNull(claims);
+        assertEquals("a@b.com", claims.getSubject());
+        assertEquals(1_700_000_000_000L, claims.getIssuedAt().getTime());
+        assertEquals(exp * 1000, claims.getExpirationMillis());
+    }
+
+    @Test
+    void tamperedSignatureThrows() {
+        String token = jwtUtil.generateToken("cliente@ecommerce.com", "USER");
+        int last = token.length() - 2;
+        char replacement = token.charAt(last) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, last) + replacement + token.charAt(last + 1);
+
+        assertThrows(SignatureException.class, () -> fastVerifier.verify(tampered));
+    }
+
+    @Test
+    void nonCanonicalSignatureIsLeftToJjwt() {
+        // O último caractere da assinatura tem 2 bits de preenchimento: trocar o bit
+        // mais baixo gera outra grafia dos mesmos bytes
+        String token = jwtUtil.generateToken("cliente@ecommerce.com", "USER");
+        int last = token.length() - 1;
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        char replacement = alphabet.charAt(alphabet.indexOf(token.charAt(last)) ^ 1);
+        String nonCanonical = token.substring(0, last) + replacement;
+
+        assertNull(fastVerifier.verify(nonCanonical));
+    }
+
+    @Test
+    void tamperedPayloadThrows() {
+        String token = jwtUtil.generateToken("cliente@ecommerce.com", "USER");
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("\"USER\"", "\"ADMIN\"");
+        String tampered = parts[0] + "." + encode(payload) + "." + parts[2];
+
+        assertThrows(SignatureException.class, () -> fastVerifier.verify(tampered));
+    }
+
+    @Test
+    void unknownKidIsLeftToJjwt() {
+        String token = sign("{\"kid\":\"0123456789abcdef\",\"alg\":\"HS512\"}", payload("a@b.com"));
+
+        assertNull(fastVerifier.verify(token));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyUnderTheSameKidThrows() {
+        SecretKey otherKey = Keys.hmacShaKeyFor(
+                "anotherSecretKeyForJWTTokenGenerationThatIsAlsoLongerThanSixtyFourCharactersForHS512"
+                        .getBytes(StandardCharsets.UTF_8));
+        String token = Jwts.builder()
+                .setHeaderParam("kid", keyRing.getActiveKid())
+                .setSubject("a@b.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(otherKey, SignatureAlgorithm.HS512)
+                .compact();
+
+        assertThrows(SignatureException.class, () -> fastVerifier.verify(token));
+    }
+
+    @Test
+    void extraHeaderFieldsAreLeftToJjwt() {
+        assertNull(fastVerifier.verify(sign("{\"kid\":\"" + keyRing.getActiveKid() + "\",\"alg\":\"HS512\",\"typ\":\"JWT\"}",
+                payload("a@b.com"))));
+        assertNull(fastVerifier.verify(sign("{\"alg\":\"HS256\"}", payload("a@b.com"))));
+        assertNull(fastVerifier.verify(sign("{\"kid\":\"" + keyRing.getActiveKid() + "\"}", payload("a@b.com"))));
+    }
+
+    @Test
+    void extraClaimsAreLeftToJjwt() {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"exp\":" + exp + ",\"nbf\":" + exp + "}")));
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"exp\":" + exp + ",\"aud\":\"loja\"}")));
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"exp\":" + exp + ",\"role\":[\"ADMIN\"]}")));
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"exp\":" + exp + ",\"extra\":{}}")));
+        // Sem sub ou sem exp
+        assertNull(fastVerifier.verify(sign(header(), "{\"exp\":" + exp + "}")));
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\"}")));
+    }
+
+    @Test
+    void escapedStringsAreLeftToJjwt() {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a\\\"b@c.com\",\"exp\":" + exp + "}")));
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a\\u0040b.com\",\"exp\":" + exp + "}")));
+        assertNull(fastVerifier.verify(sign(header(), "{\"s\\u0075b\":\"a@b.com\",\"exp\":" + exp + "}")));
+        assertNull(fastVerifier.verify(sign("{\"alg\":\"HS\\u0035\\u0031\\u0032\"}", payload("a@b.com"))));
+
+        // O jjwt lê o escape normalmente
+        String escaped = sign(header(), "{\"sub\":\"a\\u0040b.com\",\"exp\":" + exp + "}");
+        assertEquals("a@b.com", keyRing.getParser().parseClaimsJws(escaped).getBody().getSubject());
+    }
+
+    @Test
+    void numericOverflowIsLeftToJjwt() {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+
+        // Cabe em long mas estoura ao virar milissegundos
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"exp\":999999999999999999}")));
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"iat\":999999999999999999,\"exp\":" + exp + "}")));
+        // Não cabe em long
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"exp\":99999999999999999999}")));
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"iat\":99999999999999999999,\"exp\":" + exp + "}")));
+        // Negativos, frações e expoentes
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"exp\":-1}")));
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"exp\":" + exp + ".5}")));
+        assertNull(fastVerifier.verify(sign(header(), "{\"sub\":\"a@b.com\",\"exp\":1e12}")));
+    }
+
+    @Test
+    void expiredTokenIsLeftToJjwt() {
+        long exp = System.currentTimeMillis() / 1000 - 60;
+        String token = sign(header(), "{\"sub\":\"a@b.com\",\"iat\":" + (exp - 3600) + ",\"exp\":" + exp + "}");
+
+        assertNull(fastVerifier.verify(token));
+        assertThrows(ExpiredJwtException.class, () -> keyRing.getParser().parseClaimsJws(token));
+    }
+
+    @Test
+    void badPaddingLengthsAreLeftToJjwt() {
+        String token = jwtUtil.generateToken("cliente@ecommerce.com", "USER");
+        String[] parts = token.split("\\.");
+
+        // Assinatura com padding, com um caractere a mais e com um a menos
+        assertNull(fastVerifier.verify(parts[0] + "." + parts[1] + "." + parts[2] + "=="));
+        assertNull(fastVerifier.verify(parts[0] + "." + parts[1] + "." + parts[2] + "A"));
+        assertNull(fastVerifier.verify(parts[0] + "." + parts[1] + "." + parts[2].substring(1)));
+
+        // Segmentos com comprimento impossível em base64 (resto 1 na divisão por 4)
+        String encodedHeader = encode(header());
+        String encodedPayload = encode(payload("a@b.com"));
+        assertNull(fastVerifier.verify(withSignature(padToRemainderOne(encodedHeader) + "." + encodedPayload)));
+        assertNull(fastVerifier.verify(withSignature(encodedHeader + "." + padToRemainderOne(encodedPayload))));
+
+        // Payload com padding "="
+        String paddedPayload = payload("a@b.com");
+        while (paddedPayload.getBytes(StandardCharsets.UTF_8).length % 3 == 0) {
+            paddedPayload += " ";
+        }
+        String padded = Base64.getUrlEncoder().encodeToString(paddedPayload.getBytes(StandardCharsets.UTF_8));
+        assertNull(fastVerifier.verify(withSignature(encodedHeader + "." + padded)));
+    }
+
+    @Test
+    void malformedStructureIsLeftToJjwt() {
+        String token = jwtUtil.generateToken("cliente@ecommerce.com", "USER");
+
+        assertNull(fastVerifier.verify(null));
+        assertNull(fastVerifier.verify(""));
+        assertNull(fastVerifier.verify("abc"));
+        assertNull(fastVerifier.verify(token + ".extra"));
+        assertNull(fastVerifier.verify(token.substring(token.indexOf('.'))));
+        assertNull(fastVerifier.verify(withSignature(encode(header()) + "." + encode("[\"a\"]"))));
+        assertNull(fastVerifier.verify(withSignature(encode(header()) + "." + encode("{\"sub\":\"a@b.com\""))));
+    }
+
+    private String header() {
+        return "{\"kid\":\"" + keyRing.getActiveKid() + "\",\"alg\":\"HS512\"}";
+    }
+
+    private static String payload(String subject) {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        return "{\"sub\":\"" + subject + "\",\"role\":\"USER\",\"exp\":" + exp + "}";
+    }
+
+    private static String encode(String json) {
+        return BASE64URL.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Acrescenta caracteres até o comprimento deixar resto 1 na divisão por 4
+    private static String padToRemainderOne(String encoded) {
+        StringBuilder builder = new StringBuilder(encoded);
+        while (builder.length() % 4 != 1) {
+            builder.append('A');
+        }
+        return builder.toString();
+    }
+
+    private String sign(String headerJson, String payloadJson) {
+        return withSignature(encode(headerJson) + "." + encode(payloadJson));
+    }
+
+    // Assina "header.payload" exatamente como recebido, com a chave ativa
+    private String withSignature(String signingInput) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA512");
+            mac.init(keyRing.getActiveKey());
+            byte[] signature = mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + BASE64URL.encodeToString(signature);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
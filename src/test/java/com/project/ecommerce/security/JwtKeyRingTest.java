@@ -0,0 +1,120 @@
+package com.project.ecommerce.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.security.SecurityException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtKeyRingTest {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationThatNeedsToBeAtLeast256BitsLongForHS512Algorithm";
+    private static final String NEXT_SECRET = "anotherSecretKeyForJWTTokenGenerationThatIsAlsoLongerThanSixtyFourCharactersForHS512";
+
+    private JwtKeyRing keyRing;
+    private JwtFastVerifier fastVerifier;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        JwtClaimsCache claimsCache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(claimsCache, "maxSize", 100L);
+        claimsCache.init();
+
+        keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "secret", SECRET);
+        ReflectionTestUtils.setField(keyRing, "previousSecrets", List.of());
+        ReflectionTestUtils.setField(keyRing, "jwtExpiration", 86400);
+        ReflectionTestUtils.setField(keyRing, "claimsCache", claimsCache);
+        keyRing.init();
+
+        fastVerifier = new JwtFastVerifier();
+        ReflectionTestUtils.setField(fastVerifier, "keyRing", keyRing);
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 86400);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCache", claimsCache);
+        ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "fastVerifier", fastVerifier);
+    }
+
+    @Test
+    void newTokensCarryTheNewKid() {
+        String previousKid = keyRing.getActiveKid();
+        String before = jwtUtil.generateToken("cliente@ecommerce.com", "USER");
+
+        String newKid = keyRing.rotate(NEXT_SECRET);
+        String after = jwtUtil.generateToken("cliente@ecommerce.com", "USER");
+
+        assertNotEquals(previousKid, newKid);
+        assertEquals(newKid, keyRing.getActiveKid());
+        assertEquals(previousKid, kidOf(before));
+        assertEquals(newKid, kidOf(after));
+    }
+
+    @Test
+    void tokenSignedWithPreviousKeyStillVerifies() {
+        String before = jwtUtil.generateToken("cliente@ecommerce.com", "USER");
+
+        keyRing.rotate(NEXT_SECRET);
+
+        assertTrue(jwtUtil.validateToken(before));
+        assertEquals("cliente@ecommerce.com", jwtUtil.getEmailFromToken(before));
+        assertEquals("cliente@ecommerce.com", fastVerifier.verify(before).getSubject());
+        assertEquals("cliente@ecommerce.com", keyRing.getParser().parseClaimsJws(before).getBody().getSubject());
+    }
+
+    @Test
+    void revokedKidIsRejected() {
+        String previousKid = keyRing.getActiveKid();
+        String before = jwtUtil.generateToken("cliente@ecommerce.com", "USER");
+        assertTrue(jwtUtil.validateToken(before));
+
+        keyRing.rotate(NEXT_SECRET);
+        keyRing.revoke(previousKid);
+
+        assertFalse(keyRing.isKnown(previousKid));
+        assertNull(fastVerifier.verify(before));
+        assertThrows(SecurityException.class, () -> keyRing.getParser().parseClaimsJws(before));
+        // A verificação anterior em cache também é descartada
+        assertFalse(jwtUtil.validateToken(before));
+    }
+
+    @Test
+    void activeKeyCannotBeRevoked() {
+        assertThrows(IllegalStateException.class, () -> keyRing.revoke(keyRing.getActiveKid()));
+        assertTrue(keyRing.isKnown(keyRing.getActiveKid()));
+    }
+
+    @Test
+    void shortSecretIsRejectedOnRotation() {
+        String activeKid = keyRing.getActiveKid();
+
+        assertThrows(IllegalArgumentException.class, () -> keyRing.rotate("curto"));
+        assertThrows(IllegalArgumentException.class, () -> keyRing.rotate(null));
+        assertEquals(activeKid, keyRing.getActiveKid());
+    }
+
+    @Test
+    void rotatingToTheActiveSecretKeepsTheKid() {
+        String activeKid = keyRing.getActiveKid();
+
+        assertEquals(activeKid, keyRing.rotate(SECRET));
+        assertEquals(activeKid, keyRing.getActiveKid());
+    }
+
+    private String kidOf(String token) {
+        Jws<Claims> jws = keyRing.getParser().parseClaimsJws(token);
+        return jws.getHeader().getKeyId();
+    }
+}
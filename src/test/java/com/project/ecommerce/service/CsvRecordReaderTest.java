@@ -0,0 +1,74 @@
+package com.project.ecommerce.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasLineBreaksAndDoubledQuotes() throws IOException {
+        CsvRecordReader reader = reader("name,description\n"
+                + "\"Mesa, dobrável\",\"Linha 1\nLinha 2\"\n"
+                + "\"Caneca \"\"XL\"\"\",\"\"\n");
+
+        assertEquals(List.of("name", "description"), reader.next());
+        assertEquals(List.of("Mesa, dobrável", "Linha 1\nLinha 2"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertEquals(List.of("Caneca \"XL\"", ""), reader.next());
+        // A quebra dentro das aspas conta: o registro seguinte começa na linha 4
+        assertEquals(4, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void crlfAndCrEndRecords() throws IOException {
+        List<List<String>> records = readAll("a,b\r\n1,2\r3,4\r\n\r\n5,6");
+
+        assertEquals(List.of(List.of("a", "b"), List.of("1", "2"), List.of("3", "4"), List.of("5", "6")), records);
+    }
+
+    @Test
+    void lastRecordWithoutLineBreakAndEmptyFields() throws IOException {
+        assertEquals(List.of(List.of("", "x", "")), readAll(",x,"));
+    }
+
+    @Test
+    void recordLineSkipsBlankLines() throws IOException {
+        CsvRecordReader reader = reader("a\n\n\nb\n");
+
+        reader.next();
+        reader.next();
+        assertEquals(4, reader.recordLine());
+    }
+
+    @Test
+    void unterminatedQuoteFails() throws IOException {
+        CsvRecordReader reader = reader("name\n\"Mesa\nsem fim\n");
+
+        reader.next();
+        IOException e = assertThrows(IOException.class, reader::next);
+        assertEquals("Aspas não fechadas no registro da linha 2", e.getMessage());
+    }
+
+    private static CsvRecordReader reader(String csv) {
+        return new CsvRecordReader(new StringReader(csv));
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvRecordReader reader = reader(csv);
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,114 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.exception.InsufficientStockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Escritas de estoque com a venda relâmpago aberta: as compras já admitidas
+ * pelo contador são gravadas antes de qualquer outra escrita no produto.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:flash-sale;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "flash-sale.flush-interval-ms=20"
+})
+class FlashSaleServiceTest {
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private ProductService productService;
+
+    private ProductDTO product;
+
+    @BeforeEach
+    void setUp() {
+        ProductDTO dto = new ProductDTO("Fone Bluetooth", new BigDecimal("199.90"),
+                "https://example.com/fone.jpg", "Eletrônicos", "Fone sem fio");
+        dto.setStockQuantity(10);
+        product = productService.createProduct(dto);
+    }
+
+    @Test
+    void soldUnitsReachTheDatabase() throws InterruptedException {
+        flashSaleService.enable(product.getId(), null);
+        assertEquals(6, reservationService.purchase(product.getId(), 4).getStockQuantity());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (stock() != 6 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(6, stock());
+
+        flashSaleService.disable(product.getId());
+        assertEquals(6, stock());
+    }
+
+    @Test
+    void productUpdateDuringSaleKeepsAdmittedPurchases() {
+        flashSaleService.enable(product.getId(), null);
+        reservationService.purchase(product.getId(), 3);
+
+        // O PUT define o estoque em 2 depois de gravar as 3 unidades vendidas
+        ProductDTO update = productService.getProductByID(product.getId()).orElseThrow();
+        update.setStockQuantity(2);
+        update.setVersion(null);
+        assertEquals(2, flashSaleService.updateProduct(product.getId(), update).getStockQuantity());
+
+        assertTrue(flashSaleService.isActive(product.getId()));
+        assertEquals(2, flashSaleService.getStock(product.getId()));
+        assertEquals(0, reservationService.purchase(product.getId(), 2).getStockQuantity());
+        assertThrows(InsufficientStockException.class, () -> reservationService.purchase(product.getId(), 1));
+
+        flashSaleService.disable(product.getId());
+        assertEquals(0, stock());
+        assertFalse(productService.getProductByID(product.getId()).orElseThrow().getInStock());
+    }
+
+    @Test
+    void failedProductUpdateReopensTheSale() {
+        flashSaleService.enable(product.getId(), null);
+        reservationService.purchase(product.getId(), 1);
+
+        // Versão antiga: o PUT é recusado, a venda segue com o estoque gravado
+        ProductDTO stale = productService.getProductByID(product.getId()).orElseThrow();
+        stale.setVersion(-1L);
+        assertThrows(RuntimeException.class, () -> flashSaleService.updateProduct(product.getId(), stale));
+
+        assertEquals(9, flashSaleService.getStock(product.getId()));
+        flashSaleService.disable(product.getId());
+        assertEquals(9, stock());
+    }
+
+    @Test
+    void deleteDuringSaleClosesIt() {
+        flashSaleService.enable(product.getId(), null);
+        reservationService.purchase(product.getId(), 2);
+
+        flashSaleService.deleteProduct(product.getId());
+
+        assertFalse(flashSaleService.isActive(product.getId()));
+        assertNull(flashSaleService.getStock(product.getId()));
+        assertTrue(productService.getProductByID(product.getId()).isEmpty());
+    }
+
+    private int stock() {
+        return productService.getProductByID(product.getId()).orElseThrow().getStockQuantity();
+    }
+}
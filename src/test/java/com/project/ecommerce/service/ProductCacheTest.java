@@ -0,0 +1,75 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.dto.ProductDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-cache;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class ProductCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ProductDTO product;
+
+    @BeforeEach
+    void setUp() {
+        ProductDTO dto = new ProductDTO("Luminária", new BigDecimal("89.90"),
+                "https://example.com/luminaria.jpg", "Casa", "Luminária de mesa");
+        dto.setStockQuantity(3);
+        product = productService.createProduct(dto);
+    }
+
+    @Test
+    void cacheHitTakesNoConnection() {
+        Instant lastModified = productService.getProductByID(product.getId()).orElseThrow().getLastModified();
+        long missesBefore = productCache.getMissCount();
+        long acquiresBefore = connectionAcquires();
+
+        // Nome e data da última alteração (ETag do GET por ID) vêm da entrada em cache
+        for (int i = 0; i < 10; i++) {
+            ProductDTO cached = productService.getProductByID(product.getId()).orElseThrow();
+            assertEquals("Luminária", cached.getName());
+            assertEquals(lastModified, cached.getLastModified());
+        }
+
+        assertEquals(missesBefore, productCache.getMissCount());
+        assertEquals(acquiresBefore, connectionAcquires());
+    }
+
+    @Test
+    void cacheMissLoadsInItsOwnTransaction() {
+        Instant lastModified = productService.getProductByID(product.getId()).orElseThrow().getLastModified();
+        long acquiresBefore = connectionAcquires();
+
+        productService.updateStock(product.getId(), 8);
+        ProductDTO reloaded = productService.getProductByID(product.getId()).orElseThrow();
+
+        assertEquals(8, reloaded.getStockQuantity());
+        assertTrue(reloaded.getLastModified().isAfter(lastModified));
+        assertTrue(connectionAcquires() > acquiresBefore);
+        assertTrue(productService.getProductByID(-1L).isEmpty());
+    }
+
+    private long connectionAcquires() {
+        return meterRegistry.get("hikaricp.connections.acquire").timer().count();
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-creation;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class ProductCreationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void clientSuppliedIdAndVersionAreIgnored() {
+        ProductDTO dto = product("Garrafa Térmica");
+        dto.setId(987_654L);
+        dto.setVersion(7L);
+
+        ProductDTO created = productService.createProduct(dto);
+
+        assertNotNull(created.getId());
+        assertNotEquals(987_654L, created.getId());
+        assertEquals(0L, created.getVersion());
+        assertEquals("Garrafa Térmica", productService.getProductByID(created.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void clientSuppliedIdOfExistingProductDoesNotOverwriteIt() {
+        ProductDTO existing = productService.createProduct(product("Mochila"));
+
+        ProductDTO dto = product("Mochila Falsificada");
+        dto.setId(existing.getId());
+        ProductDTO created = productService.createProduct(dto);
+
+        assertNotEquals(existing.getId(), created.getId());
+        assertEquals("Mochila", productService.getProductByID(existing.getId()).orElseThrow().getName());
+        assertEquals(0L, productService.getProductByID(existing.getId()).orElseThrow().getVersion());
+    }
+
+    private static ProductDTO product(String name) {
+        ProductDTO dto = new ProductDTO(name, new BigDecimal("129.90"), "https://example.com/produto.jpg",
+                "Esportes", "Produto de teste");
+        dto.setStockQuantity(5);
+        return dto;
+    }
+}
@@ -0,0 +1,153 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.dto.ImportErrorDTO;
+import com.project.ecommerce.dto.ImportReportDTO;
+import com.project.ecommerce.entity.Product;
+import com.project.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Importação em lotes de 2 linhas: erros por linha no relatório, sem
+ * derrubar as linhas válidas do mesmo lote.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-import;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "catalog.import.chunk-size=2"
+})
+class ProductImportServiceTest {
+
+    private static final String HEADER = "name,price,image,category,stock_quantity,description\n";
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void csvWithBomAndQuotedFields() {
+        ImportReportDTO report = importCsv("\uFEFF" + HEADER
+                + "\"Mesa, dobrável\",129.90,https://example.com/mesa.jpg,Camping,3,\"Leve\r\npara \"\"trilha\"\"\"\r\n"
+                + "Cadeira,59.90,https://example.com/cadeira.jpg,Camping,5,\r\n");
+
+        assertEquals(2, report.getImported());
+        assertEquals(0, report.getRejected());
+        Map<String, Product> products = byName();
+        assertEquals("Leve\r\npara \"trilha\"", products.get("Mesa, dobrável").getDescription());
+        assertEquals(new BigDecimal("129.90"), products.get("Mesa, dobrável").getPrice());
+        assertEquals(5, products.get("Cadeira").getStockQuantity());
+    }
+
+    @Test
+    void csvRowWithWrongColumnCountIsRejected() {
+        ImportReportDTO report = importCsv(HEADER
+                + "Mesa,129.90,https://example.com/mesa.jpg,Camping,3\n"
+                + "Cadeira,59.90,https://example.com/cadeira.jpg,Camping,5,Dobrável\n");
+
+        assertEquals(2, report.getTotalRows());
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(2L), errorLines(report));
+        assertEquals("Número de colunas (5) diferente do cabeçalho (6)", report.getErrors().get(0).getErrors().get(0));
+    }
+
+    @Test
+    void csvUnterminatedQuoteStopsTheImportKeepingEarlierRows() {
+        ImportReportDTO report = importCsv(HEADER
+                + "Cadeira,59.90,https://example.com/cadeira.jpg,Camping,5,\n"
+                + "Mesa,129.90,https://example.com/mesa.jpg,Camping,3,\"sem fim\n");
+
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(3L), errorLines(report));
+        assertTrue(report.getErrors().get(0).getErrors().get(0).startsWith("Leitura interrompida"));
+    }
+
+    @Test
+    void csvUnknownColumnRejectsTheImport() {
+        assertThrows(IllegalArgumentException.class, () -> importCsv("name,price,cor\nMesa,10,azul\n"));
+    }
+
+    @Test
+    void chunkRejectedByTheDatabaseIsRetriedRowByRow() {
+        // A imagem passa na validação do DTO, mas não cabe na coluna (500)
+        String longImage = "https://example.com/" + "x".repeat(500) + ".jpg";
+        ImportReportDTO report = importCsv(HEADER
+                + "Mesa,129.90,https://example.com/mesa.jpg,Camping,3,\n"
+                + "Cadeira," + "59.90," + longImage + ",Camping,5,\n"
+                + "Lanterna,39.90,https://example.com/lanterna.jpg,Camping,7,\n");
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(List.of(3L), errorLines(report));
+        assertTrue(report.getErrors().get(0).getErrors().get(0).startsWith("Erro ao gravar"));
+        assertEquals(2, report.getChunks());
+        assertEquals(List.of("Lanterna", "Mesa"), byName().keySet().stream().sorted().toList());
+    }
+
+    @Test
+    void ndjsonNullAndNonObjectLinesAreRowErrors() {
+        ImportReportDTO report = importNdjson("""
+                {"name":"Mesa","price":129.90,"image":"https://example.com/mesa.jpg","category":"Camping"}
+                null
+                [1, 2]
+                "Cadeira"
+                {"name":"Lanterna","price":39.9,"image":"https://example.com/lanterna.jpg","category":"Camping","stockQuantity":7}
+                """);
+
+        assertEquals(5, report.getTotalRows());
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(2L, 3L, 4L), errorLines(report));
+        assertEquals(new BigDecimal("129.90"), byName().get("Mesa").getPrice());
+        assertEquals(7, byName().get("Lanterna").getStockQuantity());
+    }
+
+    @Test
+    void ndjsonUsesTheSameFieldRulesAsCsv() {
+        ImportReportDTO report = importNdjson("""
+                {"id":99,"name":"Mesa","price":"129.90","image":"https://example.com/mesa.jpg","category":"Camping","stock_quantity":"3"}
+                {"name":"Cadeira","price":59.9,"image":"https://example.com/cadeira.jpg","category":"Camping","cor":"azul"}
+                {"name":"Lanterna","price":"barato","image":"https://example.com/lanterna.jpg","category":"Camping"}
+                """);
+
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(2L, 3L), errorLines(report));
+        assertEquals(List.of("Campo desconhecido: cor"), report.getErrors().get(0).getErrors());
+        assertEquals("price: valor inválido 'barato'", report.getErrors().get(1).getErrors().get(0));
+        assertEquals(3, byName().get("Mesa").getStockQuantity());
+    }
+
+    private ImportReportDTO importCsv(String csv) {
+        return importService.importProducts(new StringReader(csv), ProductImportService.Format.CSV);
+    }
+
+    private ImportReportDTO importNdjson(String ndjson) {
+        return importService.importProducts(new StringReader(ndjson), ProductImportService.Format.NDJSON);
+    }
+
+    private static List<Long> errorLines(ImportReportDTO report) {
+        return report.getErrors().stream().map(ImportErrorDTO::getLine).toList();
+    }
+
+    private Map<String, Product> byName() {
+        return productRepository.findAll().stream().collect(Collectors.toMap(Product::getName, p -> p));
+    }
+}
@@ -0,0 +1,167 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.dto.CursorPageDTO;
+import com.project.ecommerce.dto.FacetsDTO;
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.dto.ProductSummaryDTO;
+import com.project.ecommerce.search.ProductSearchIndex;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Busca por nome pelo índice invertido sem o motor colunar: os demais filtros
+ * vão ao banco em blocos de IDs, também nas facetas. Com blocos de 8 IDs, nenhuma
+ * consulta pode levar os candidatos todos de uma vez, e o resultado precisa ser o mesmo.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:indexed-search;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "catalog.columnar.enabled=false",
+        "catalog.search.id-chunk-size=" + ProductIndexedSearchTest.CHUNK_SIZE,
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.project.ecommerce.service.ProductIndexedSearchTest$SqlCapture"
+})
+class ProductIndexedSearchTest {
+
+    static final int CHUNK_SIZE = 8;
+
+    // Placeholders de filtros e cursor que acompanham o bloco de IDs na mesma consulta
+    private static final int OTHER_PARAMETERS = 8;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductFacetService facetService;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    // Criado uma vez: o contexto Spring (e o banco) é compartilhado entre os testes
+    private static final Map<Long, ProductDTO> catalog = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        if (!catalog.isEmpty()) {
+            return;
+        }
+        for (int i = 1; i <= 30; i++) {
+            ProductDTO dto = new ProductDTO(String.format("Cantil Inox %02d", i), new BigDecimal(10 + i),
+                    "https://example.com/cantil.jpg", i % 3 == 0 ? "Camping" : "Cozinha", "Cantil de aço");
+            dto.setStockQuantity(i % 4 == 0 ? 0 : 5);
+            dto.setInStock(i % 4 != 0);
+            ProductDTO created = productService.createProduct(dto);
+            catalog.put(created.getId(), created);
+        }
+        assertTrue(searchIndex.isReady());
+    }
+
+    @Test
+    void offsetPagesMatchFilteringTheRankedIdsDirectly() {
+        List<Long> expected = LongStream.of(searchIndex.search("cantil"))
+                .boxed()
+                .filter(id -> catalog.get(id).getCategory().equals("Camping"))
+                .filter(id -> catalog.get(id).getInStock())
+                .collect(Collectors.toList());
+        assertFalse(expected.isEmpty());
+
+        SqlCapture.STATEMENTS.clear();
+        List<Long> found = new ArrayList<>();
+        for (int page = 0; page * 3 < expected.size(); page++) {
+            Page<ProductSummaryDTO> result = productService.searchProducts(
+                    "Camping", true, null, null, "cantil", page, 3);
+            assertEquals(expected.size(), result.getTotalElements());
+            result.getContent().forEach(product -> found.add(product.getId()));
+        }
+
+        assertEquals(expected, found);
+        assertParametersBounded();
+    }
+
+    @Test
+    void cursorPagesWalkAllMatchesInNameOrder() {
+        BigDecimal minPrice = new BigDecimal("15");
+        List<Long> expected = catalog.values().stream()
+                .filter(product -> product.getCategory().equals("Cozinha"))
+                .filter(product -> product.getPrice().compareTo(minPrice) >= 0)
+                .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                .map(ProductDTO::getId)
+                .collect(Collectors.toList());
+
+        SqlCapture.STATEMENTS.clear();
+        List<Long> found = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            CursorPageDTO<ProductSummaryDTO> page = productService.searchProductsAfterCursor(
+                    "Cozinha", null, minPrice, null, "cantil", cursor, 2);
+            page.getContent().forEach(product -> found.add(product.getId()));
+            cursor = page.getNextCursor();
+            assertTrue(found.size() <= expected.size(), "páginas repetidas");
+        }
+
+        assertEquals(expected, found);
+        assertParametersBounded();
+    }
+
+    @Test
+    void cursorSearchWithoutMatchesAfterFiltersIsEmpty() {
+        CursorPageDTO<ProductSummaryDTO> page = productService.searchProductsAfterCursor(
+                "Eletrônicos", null, null, null, "cantil", "", 5);
+
+        assertTrue(page.getContent().isEmpty());
+        assertFalse(page.isHasNext());
+    }
+
+    @Test
+    void facetsSumCountsOfEveryChunk() {
+        Map<String, Long> byCategory = catalog.values().stream()
+                .collect(Collectors.groupingBy(ProductDTO::getCategory, Collectors.counting()));
+        long inStock = catalog.values().stream().filter(ProductDTO::getInStock).count();
+
+        SqlCapture.STATEMENTS.clear();
+        FacetsDTO facets = facetService.getFacets(List.of("category", "inStock"), null, null, null, null, "cantil");
+
+        assertEquals(byCategory, facets.getCategory());
+        assertEquals(inStock, facets.getInStock().get("true"));
+        assertEquals(catalog.size() - inStock, facets.getInStock().get("false"));
+        assertParametersBounded();
+    }
+
+    private static void assertParametersBounded() {
+        assertFalse(SqlCapture.STATEMENTS.isEmpty());
+        for (String sql : SqlCapture.STATEMENTS) {
+            long placeholders = sql.chars().filter(c -> c == '?').count();
+            assertTrue(placeholders <= CHUNK_SIZE + OTHER_PARAMETERS, sql);
+        }
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase().contains("from products")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
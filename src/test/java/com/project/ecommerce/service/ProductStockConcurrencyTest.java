@@ -0,0 +1,136 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.exception.InsufficientStockException;
+import com.project.ecommerce.exception.ProductConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-concurrency;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class ProductStockConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int INITIAL_STOCK = 100;
+
+    @Autowired
+    private ProductService productService;
+
+    private ExecutorService executor;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+
+        ProductDTO product = new ProductDTO("Tênis Edição Limitada", new BigDecimal("799.90"),
+                "https://example.com/tenis.jpg", "Calçados", "Poucas unidades");
+        product.setStockQuantity(INITIAL_STOCK);
+        productId = productService.createProduct(product).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        productService.deleteProduct(productId);
+    }
+
+    @Test
+    void concurrentDecrementsNeverOversell() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(10, () -> {
+            try {
+                productService.decrementStock(productId, 1);
+                sold.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        ProductDTO product = productService.getProductByID(productId).orElseThrow();
+        assertEquals(INITIAL_STOCK, sold.get());
+        assertEquals(THREADS * 10 - INITIAL_STOCK, rejected.get());
+        assertEquals(0, product.getStockQuantity());
+        assertFalse(product.getInStock());
+    }
+
+    @Test
+    void concurrentMultiUnitDecrementsAccountForEveryUnit() throws Exception {
+        AtomicInteger soldUnits = new AtomicInteger();
+
+        runConcurrently(5, () -> {
+            int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+            try {
+                productService.decrementStock(productId, quantity);
+                soldUnits.addAndGet(quantity);
+            } catch (InsufficientStockException e) {
+                // Quantidade maior que o restante: nada foi baixado
+            }
+        });
+
+        ProductDTO product = productService.getProductByID(productId).orElseThrow();
+        assertTrue(product.getStockQuantity() >= 0);
+        assertEquals(INITIAL_STOCK, soldUnits.get() + product.getStockQuantity());
+        assertEquals(product.getStockQuantity() > 0, product.getInStock());
+    }
+
+    @Test
+    void decrementInvalidatesVersionReadBeforeIt() {
+        ProductDTO read = productService.getProductByID(productId).orElseThrow();
+
+        ProductDTO afterSale = productService.decrementStock(productId, 1);
+        assertEquals(INITIAL_STOCK - 1, afterSale.getStockQuantity());
+        assertEquals(read.getVersion() + 1, afterSale.getVersion());
+
+        // Um PUT com a versão antiga regravaria o estoque anterior à venda
+        read.setName("Tênis Edição Limitada II");
+        assertThrows(ProductConflictException.class, () -> productService.updateProduct(productId, read));
+
+        afterSale.setName("Tênis Edição Limitada II");
+        ProductDTO updated = productService.updateProduct(productId, afterSale);
+        assertEquals(INITIAL_STOCK - 1, updated.getStockQuantity());
+        assertEquals(afterSale.getVersion() + 1, updated.getVersion());
+    }
+
+    // Cada thread executa a ação "attempts" vezes, todas liberadas ao mesmo tempo
+    private void runConcurrently(int attempts, Runnable action) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < attempts; j++) {
+                    action.run();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.project.ecommerce.service;
+
+import com.project.ecommerce.dto.ProductDTO;
+import com.project.ecommerce.dto.ReservationDTO;
+import com.project.ecommerce.exception.InsufficientStockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-reservation;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "stock-reservation.wheel.tick-ms=10"
+})
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductStockLocks stockLocks;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        ProductDTO dto = new ProductDTO("Mochila", new BigDecimal("249.90"),
+                "https://example.com/mochila.jpg", "Acessórios", "Mochila de trilha");
+        dto.setStockQuantity(10);
+        productId = productService.createProduct(dto).getId();
+    }
+
+    @Test
+    void reservationExpiresOnTheWheelAndFreesItsUnits() throws InterruptedException {
+        ReservationDTO reservation = reservationService.reserve(productId, 4, 1L, "ana");
+        assertEquals(4, reservationService.getReserved(productId));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (reservationService.getReserved(productId) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(0, reservationService.getReserved(productId));
+        assertThrows(RuntimeException.class, () -> reservationService.confirm(reservation.getId(), "ana"));
+        assertEquals(10, stock());
+    }
+
+    @Test
+    void secondConfirmIsRejectedAndSellsNothing() {
+        ReservationDTO reservation = reservationService.reserve(productId, 3, null, "ana");
+
+        assertEquals(7, reservationService.confirm(reservation.getId(), "ana").getStockQuantity());
+        assertThrows(RuntimeException.class, () -> reservationService.confirm(reservation.getId(), "ana"));
+
+        assertEquals(7, stock());
+        assertEquals(0, reservationService.getReserved(productId));
+    }
+
+    @Test
+    void onlyTheOwnerConfirmsOrReleases() {
+        ReservationDTO reservation = reservationService.reserve(productId, 2, null, "ana");
+
+        assertThrows(AccessDeniedException.class, () -> reservationService.confirm(reservation.getId(), "bruno"));
+        assertThrows(AccessDeniedException.class, () -> reservationService.release(reservation.getId(), "bruno"));
+        assertEquals(2, reservationService.getReserved(productId));
+        assertEquals(10, stock());
+
+        reservationService.release(reservation.getId(), "ana");
+        assertEquals(0, reservationService.getReserved(productId));
+    }
+
+    @Test
+    void failedConfirmKeepsTheReservationActive() {
+        ReservationDTO reservation = reservationService.reserve(productId, 4, null, "ana");
+        productService.updateStock(productId, 2);
+
+        assertThrows(InsufficientStockException.class, () -> reservationService.confirm(reservation.getId(), "ana"));
+        assertEquals(4, reservationService.getReserved(productId));
+        assertEquals(2, stock());
+
+        // Com estoque de volta a mesma reserva é confirmada
+        productService.updateStock(productId, 10);
+        assertEquals(6, reservationService.confirm(reservation.getId(), "ana").getStockQuantity());
+        assertEquals(0, reservationService.getReserved(productId));
+    }
+
+    @Test
+    void purchaseLeavesReservedUnits() {
+        ReservationDTO reservation = reservationService.reserve(productId, 8, null, "ana");
+
+        assertThrows(InsufficientStockException.class, () -> reservationService.purchase(productId, 3));
+        assertEquals(8, reservationService.purchase(productId, 2).getStockQuantity());
+        assertThrows(InsufficientStockException.class, () -> reservationService.purchase(productId, 1));
+
+        assertEquals(0, reservationService.confirm(reservation.getId(), "ana").getStockQuantity());
+    }
+
+    @Test
+    void flashSaleAdmissionLeavesReservedUnits() {
+        ReservationDTO reservation = reservationService.reserve(productId, 8, null, "ana");
+        flashSaleService.enable(productId, null);
+        try {
+            assertThrows(InsufficientStockException.class, () -> reservationService.purchase(productId, 3));
+            assertEquals(8, reservationService.purchase(productId, 2).getStockQuantity());
+            // O contador da venda conta para novas reservas
+            assertThrows(InsufficientStockException.class, () -> reservationService.reserve(productId, 1, null, "bruno"));
+
+            assertEquals(0, reservationService.confirm(reservation.getId(), "ana").getStockQuantity());
+        } finally {
+            flashSaleService.disable(productId);
+        }
+
+        assertEquals(0, stock());
+        assertEquals(0, reservationService.getAvailability(productId).getAvailable());
+    }
+
+    @Test
+    void flashSaleAdmissionDoesNotWaitForTheStockLock() throws Exception {
+        flashSaleService.enable(productId, null);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread holder = new Thread(() -> stockLocks.withLock(productId, () -> {
+            locked.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        try {
+            locked.await();
+            // Com o lock do produto ocupado, compra e esgotado respondem pelo contador
+            assertEquals(9, CompletableFuture.supplyAsync(() -> reservationService.purchase(productId, 1))
+                    .get(5, TimeUnit.SECONDS).getStockQuantity());
+            ExecutionException soldOut = assertThrows(ExecutionException.class, () ->
+                    CompletableFuture.supplyAsync(() -> reservationService.purchase(productId, 20))
+                            .get(5, TimeUnit.SECONDS));
+            assertInstanceOf(InsufficientStockException.class, soldOut.getCause());
+        } finally {
+            done.countDown();
+            holder.join();
+            flashSaleService.disable(productId);
+        }
+        assertEquals(9, stock());
+    }
+
+    @Test
+    void holdsDuringSaleComeOutOfTheCounter() {
+        flashSaleService.enable(productId, null);
+        try {
+            ReservationDTO released = reservationService.reserve(productId, 3, null, "ana");
+            ReservationDTO confirmed = reservationService.reserve(productId, 2, null, "bruno");
+            assertEquals(5, flashSaleService.getStock(productId));
+
+            reservationService.release(released.getId(), "ana");
+            assertEquals(8, flashSaleService.getStock(productId));
+
+            // Confirmar não mexe no disponível: as unidades já estavam fora do contador
+            assertEquals(8, reservationService.confirm(confirmed.getId(), "bruno").getStockQuantity());
+            assertEquals(8, flashSaleService.getStock(productId));
+            assertEquals(0, reservationService.getReserved(productId));
+        } finally {
+            flashSaleService.disable(productId);
+        }
+        assertEquals(8, stock());
+    }
+
+    @Test
+    void concurrentReservesAndPurchasesNeverOversell() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                boolean reserve = i % 2 == 0;
+                String owner = "cliente-" + i;
+                futures.add(executor.submit(() -> {
+                    try {
+                        if (reserve) {
+                            reservationService.reserve(productId, 1, null, owner);
+                        } else {
+                            reservationService.purchase(productId, 1);
+                            sold.incrementAndGet();
+                        }
+                    } catch (InsufficientStockException e) {
+                        // Esgotado: esperado para a maioria
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Cada unidade foi vendida ou ficou retida, nunca as duas coisas
+        assertEquals(10 - sold.get(), stock());
+        assertEquals(10, sold.get() + reservationService.getReserved(productId));
+    }
+
+    private int stock() {
+        return productService.getProductByID(productId).orElseThrow().getStockQuantity();
+    }
+}